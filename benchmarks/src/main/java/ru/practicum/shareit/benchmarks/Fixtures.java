@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//detached entities shaped like the rows of the listing endpoints, every item has a request, an owner and a booker
+@UtilityClass
+class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    //what JacksonAutoConfiguration builds for the server
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static List<Booking> bookings(int size) {
+        List<Booking> bookings = new ArrayList<>(size);
+        for (Item item : items(size)) {
+            bookings.add(Booking.builder()
+                    .id(item.getId())
+                    .start(NOW.minusDays(2))
+                    .end(NOW.minusDays(1))
+                    .item(item)
+                    .booker(user(item.getId() + 1))
+                    .status(Status.APPROVED)
+                    .version(1)
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<Item> items(int size) {
+        List<Item> items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("description of item " + id)
+                    .available(true)
+                    .owner(user(id))
+                    .request(request(id))
+                    .version(1)
+                    .build());
+        }
+        return items;
+    }
+
+    static List<Comment> comments(int size) {
+        List<Comment> comments = new ArrayList<>(size);
+        for (Item item : items(size)) {
+            comments.add(Comment.builder()
+                    .id(item.getId())
+                    .text("comment on item " + item.getId())
+                    .item(item)
+                    .author(user(item.getId() + 1))
+                    .created(NOW)
+                    .build());
+        }
+        return comments;
+    }
+
+    static List<ItemRequest> requests(int size) {
+        List<ItemRequest> requests = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            requests.add(request(id));
+        }
+        return requests;
+    }
+
+    private static ItemRequest request(long id) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("need item " + id)
+                .requester(user(id + 1))
+                .created(NOW.minusDays(3))
+                .version(1)
+                .build();
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user " + id)
+                .email("user" + id + "@mail.ru")
+                .version(1)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//maps a whole listing per invocation, the per-row cost is the score (and gc.alloc.rate.norm) divided by size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<BookingAllDto> lastBookings;
+    private List<BookingAllDto> nextBookings;
+    private List<CommentDto> itemComments;
+    private List<Comment> comments;
+    private List<ItemRequest> requests;
+    private List<ItemDto> requestItems;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(size);
+        items = Fixtures.items(size);
+        lastBookings = map(bookings);
+        nextBookings = map(bookings);
+        comments = Fixtures.comments(size);
+        itemComments = List.of(CommentMapper.toCommentDto(comments.get(0)));
+        requests = Fixtures.requests(size);
+        requestItems = List.of(ItemMapper.toItemDto(items.get(0)));
+    }
+
+    @Benchmark
+    public List<BookingAllDto> bookingAllFieldsDto() {
+        return map(bookings);
+    }
+
+    @Benchmark
+    public List<ItemAllDto> itemAllFieldsDto() {
+        List<ItemAllDto> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(ItemMapper.toItemAllFieldsDto(items.get(i), lastBookings.get(i), nextBookings.get(i), itemComments));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<CommentDto> commentDto() {
+        List<CommentDto> result = new ArrayList<>(size);
+        for (Comment comment : comments) {
+            result.add(CommentMapper.toCommentDto(comment));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> itemRequestDto() {
+        List<ItemRequestDto> result = new ArrayList<>(size);
+        for (ItemRequest request : requests) {
+            result.add(ItemRequestMapper.mapToItemRequestDto(request, requestItems));
+        }
+        return result;
+    }
+
+    private static List<BookingAllDto> map(List<Booking> bookings) {
+        List<BookingAllDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            result.add(BookingMapper.mapToBookingAllFieldsDto(booking));
+        }
+        return result;
+    }
+}
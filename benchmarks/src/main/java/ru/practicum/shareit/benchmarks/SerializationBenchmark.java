@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+//response bodies of the listing endpoints, written the way MappingJackson2HttpMessageConverter writes them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectWriter itemsWriter;
+    private ObjectWriter bookingsWriter;
+    private List<ItemAllDto> items;
+    private List<BookingAllDto> bookings;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        itemsWriter = objectMapper.writerFor(new TypeReference<List<ItemAllDto>>() {
+        });
+        bookingsWriter = objectMapper.writerFor(new TypeReference<List<BookingAllDto>>() {
+        });
+        List<Booking> bookingRows = Fixtures.bookings(size);
+        bookings = bookingRows.stream()
+                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .collect(toList());
+        List<CommentDto> comments = List.of(CommentMapper.toCommentDto(Fixtures.comments(1).get(0)));
+        items = bookingRows.stream()
+                .map(booking -> ItemMapper.toItemAllFieldsDto(booking.getItem(),
+                        BookingMapper.mapToBookingAllFieldsDto(booking),
+                        null,
+                        comments))
+                .collect(toList());
+    }
+
+    @Benchmark
+    public byte[] itemAllDtoList() throws JsonProcessingException {
+        return itemsWriter.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingAllDtoList() throws JsonProcessingException {
+        return bookingsWriter.writeValueAsBytes(bookings);
+    }
+}
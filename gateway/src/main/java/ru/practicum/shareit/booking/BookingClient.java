@@ -1,71 +1,90 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
-import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClient;
+import ru.practicum.shareit.exception.IncorrectParameterException;
 
+import java.time.LocalDate;
 import java.util.Map;
 
-@Service
-public class BookingClient extends BaseClient {
-    private static final String API_PREFIX = "/bookings";
+//shared by the servlet and reactive controllers, R is what the ServerClient of the mode returns
+@RequiredArgsConstructor
+public class BookingClient<R> {
+    public static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
-                         RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
+    private final ServerClient<R> server;
 
-    public ResponseEntity<Object> getBookings(Long userId,
-                                              BookingState state,
-                                              Integer from,
-                                              Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public R getBookings(Long userId,
+                         String stateParam,
+                         Integer from,
+                         Integer size,
+                         String after) {
+        return get("", userId, state(stateParam), from, size, after);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId,
-                                                   BookingState state,
-                                                   Integer from,
-                                                   Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public R getOwnerBookings(Long userId,
+                              String stateParam,
+                              Integer from,
+                              Integer size,
+                              String after) {
+        return get("/owner", userId, state(stateParam), from, size, after);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId,
-                                                BookingRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public R createBooking(Long userId,
+                           BookingRequestDto requestDto) {
+        if (requestDto.getStart() == null)
+            throw new IncorrectParameterException("Не задана дата начала бронирования");
+        if (requestDto.getEnd() == null)
+            throw new IncorrectParameterException("Не задана дата окончания бронирования");
+        if (requestDto.getStart().isAfter(requestDto.getEnd()))
+            throw new IncorrectParameterException("Некорректная дата бронирования");
+        if (requestDto.getStart().toLocalDate().isBefore(LocalDate.now()))
+            throw new IncorrectParameterException("Некорректная дата начала бронирования");
+        if (requestDto.getEnd().isBefore(requestDto.getStart())
+                || requestDto.getEnd().toLocalDate().isBefore(LocalDate.now()))
+            throw new IncorrectParameterException("Некорректная дата бронирования");
+        return server.post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId,
-                                             Long bookingId) {
-        return get("/" + bookingId, userId);
+    public R getBooking(Long userId,
+                        Long bookingId) {
+        return server.get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(Integer bookingId,
-                                                 Boolean approved,
-                                                 Long userId) {
+    public R approveBooking(Integer bookingId,
+                            Boolean approved,
+                            Long userId) {
         Map<String, Object> parameters = Map.of("approved", approved);
         String path = "/" + bookingId + "?approved={approved}";
-        return patch(path, userId, parameters, null);
+        return server.patch(path, userId, parameters, null);
+    }
+
+    private R get(String path,
+                  Long userId,
+                  BookingState state,
+                  Integer from,
+                  Integer size,
+                  String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "after", after
+            );
+            return server.get(path + "?state={state}&size={size}&after={after}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return server.get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    private static BookingState state(String stateParam) {
+        return BookingState.from(stateParam).orElseThrow(
+                () -> new IncorrectParameterException("Unknown state: " + stateParam));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+@ConditionalOnWebApplication(type = REACTIVE)
+@Validated
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+public class ReactiveBookingController {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final BookingClient<Mono<ResponseEntity<Object>>> bookingClient;
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                         @RequestParam(name = "after", required = false) String after,
+                                                         @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
+        return bookingClient.getOwnerBookings(userId, stateParam, from, size, after);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @RequestParam(name = "after", required = false) String after,
+                                                    @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
+        return bookingClient.getBookings(userId, stateParam, from, size, after);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
+                                                       @RequestParam(required = false) Boolean approved,
+                                                       @PathVariable Integer bookingId) {
+        return bookingClient.approveBooking(bookingId, approved, userId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                                      @RequestBody @Valid BookingRequestDto requestDto) {
+        return bookingClient.createBooking(userId, requestDto);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                                   @PathVariable Long bookingId) {
+        return bookingClient.getBooking(userId, bookingId);
+    }
+}
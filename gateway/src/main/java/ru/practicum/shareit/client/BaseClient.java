@@ -4,94 +4,87 @@ import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.List;
 import java.util.Map;
 
-public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+public class BaseClient implements ServerClient<ResponseEntity<Object>> {
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.LOCATION,
+            HttpHeaders.ETAG,
+            "X-Next-Cursor"
+    );
+
+    private final RestTemplate rest;
+    private final String apiPrefix;
+    private final ServerResponseCache responseCache;
+
+    public BaseClient(String apiPrefix, RestTemplate rest, ServerResponseCache responseCache) {
+        this.apiPrefix = apiPrefix;
         this.rest = rest;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        ServerResponseCache.Revalidation revalidation = method == HttpMethod.GET
+                ? responseCache.revalidation(apiPrefix, path, userId, parameters, clientEtag())
+                : null;
+        if (revalidation != null) {
+            ResponseEntity<Object> fresh = revalidation.fresh();
+            if (fresh != null) return fresh;
+            revalidation.addTo(headers);
+        }
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        if (revalidation == null) {
+            try {
+                ResponseEntity<byte[]> shareitServerResponse = exchange(method, path, parameters, requestEntity);
+                return prepareGatewayResponse(shareitServerResponse.getStatusCode(),
+                        shareitServerResponse.getHeaders(),
+                        shareitServerResponse.getBody());
+            } finally {
+                responseCache.invalidate(apiPrefix);
+            }
+        }
+        ResponseEntity<byte[]> shareitServerResponse = revalidation.exchange(headers,
+                () -> exchange(method, path, parameters, requestEntity));
+        return revalidation.complete(shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
-    protected ResponseEntity<Object> get(String path) {
-        return get(path, null, null);
-    }
-
-    protected ResponseEntity<Object> get(String path, long userId) {
-        return get(path, userId, null);
-    }
-
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
-    }
-
-    protected <T> ResponseEntity<Object> post(String path, T body) {
-        return post(path, null, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
-        return post(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
-    }
-
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
-        return put(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
-        return patch(path, null, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
-        return patch(path, userId, null, null);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
-        return patch(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
-    }
-
-    protected ResponseEntity<Object> delete(String path) {
-        return delete(path, null, null);
-    }
-
-    protected ResponseEntity<Object> delete(String path, long userId) {
-        return delete(path, userId, null);
-    }
-
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
-    }
-
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
+    private ResponseEntity<byte[]> exchange(HttpMethod method,
+                                            String path,
+                                            @Nullable Map<String, Object> parameters,
+                                            HttpEntity<?> requestEntity) {
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.exchange(path, method, requestEntity, byte[].class, parameters);
             }
+            return rest.exchange(path, method, requestEntity, byte[].class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    @Nullable
+    private static String clientEtag() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) return null;
+        return ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -101,15 +94,23 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    //server response body is passed through as is, without parsing and re-serializing JSON
+    static ResponseEntity<Object> prepareGatewayResponse(HttpStatus status,
+                                                         @Nullable HttpHeaders serverHeaders,
+                                                         @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (serverHeaders != null) {
+            PASSTHROUGH_HEADERS.forEach(name -> {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            });
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+
+import static org.springframework.web.filter.reactive.ServerWebExchangeContextFilter.EXCHANGE_CONTEXT_ATTRIBUTE;
+import static ru.practicum.shareit.client.BaseClient.defaultHeaders;
+import static ru.practicum.shareit.client.BaseClient.prepareGatewayResponse;
+
+public class ReactiveBaseClient implements ServerClient<Mono<ResponseEntity<Object>>> {
+    private final WebClient webClient;
+    private final String apiPrefix;
+    private final ServerResponseCache responseCache;
+
+    public ReactiveBaseClient(String apiPrefix, WebClient webClient, ServerResponseCache responseCache) {
+        this.apiPrefix = apiPrefix;
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> send(HttpMethod method, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.deferContextual(context -> {
+            HttpHeaders headers = defaultHeaders(userId);
+            ServerResponseCache.Revalidation revalidation = method == HttpMethod.GET
+                    ? responseCache.revalidation(apiPrefix, path, userId, parameters, clientEtag(context))
+                    : null;
+            if (revalidation != null) {
+                ResponseEntity<Object> fresh = revalidation.fresh();
+                if (fresh != null) return Mono.just(fresh);
+                revalidation.addTo(headers);
+            }
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(requestHeaders -> requestHeaders.addAll(headers));
+            WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+            Mono<ResponseEntity<byte[]>> exchange = requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class));
+            if (revalidation == null)
+                return exchange
+                        .map(response -> prepareGatewayResponse(response.getStatusCode(), response.getHeaders(), response.getBody()))
+                        .doFinally(signal -> responseCache.invalidate(apiPrefix));
+            return revalidation.exchange(headers, exchange)
+                    .map(response -> revalidation.complete(response.getStatusCode(), response.getHeaders(), response.getBody()));
+        });
+    }
+
+    //the incoming exchange is put into the context by ServerWebExchangeContextFilter
+    @Nullable
+    private static String clientEtag(ContextView context) {
+        return context.<ServerWebExchange>getOrEmpty(EXCHANGE_CONTEXT_ATTRIBUTE)
+                .map(exchange -> exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))
+                .orElse(null);
+    }
+}
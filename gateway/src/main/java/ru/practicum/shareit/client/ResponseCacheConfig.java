@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ServerResponseCache serverResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ServerResponseCache(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private long maximumSize = 10000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    //path prefix -> time a response is served without asking the server, the longest prefix wins
+    private Map<String, Duration> ttl = new HashMap<>();
+    //api prefix -> other api prefixes whose responses a mutation makes stale
+    private Map<String, List<String>> invalidates = new HashMap<>();
+}
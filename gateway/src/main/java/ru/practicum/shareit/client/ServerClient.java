@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+//transport to the server, R is ResponseEntity<Object> in servlet mode and Mono<ResponseEntity<Object>> in reactive mode
+public interface ServerClient<R> {
+
+    R send(HttpMethod method, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    default R get(String path) {
+        return get(path, null, null);
+    }
+
+    default R get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    default R get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return send(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    default R post(String path, Object body) {
+        return post(path, null, null, body);
+    }
+
+    default R post(String path, long userId, Object body) {
+        return post(path, userId, null, body);
+    }
+
+    default R post(String path, Long userId, @Nullable Map<String, Object> parameters, Object body) {
+        return send(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    default R patch(String path, Object body) {
+        return patch(path, null, null, body);
+    }
+
+    default R patch(String path, long userId, Object body) {
+        return patch(path, userId, null, body);
+    }
+
+    default R patch(String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return send(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    default R delete(String path) {
+        return delete(path, null, null);
+    }
+
+    default R delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return send(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+//the same resource clients over RestTemplate in servlet mode and over WebClient in reactive mode
+@Configuration
+public class ServerClientConfig {
+
+    @Configuration
+    @ConditionalOnWebApplication(type = SERVLET)
+    static class Servlet {
+        private final String serverUrl;
+        private final RestTemplateBuilder builder;
+        private final ServerResponseCache responseCache;
+
+        Servlet(@Value("${shareit-server.url}") String serverUrl,
+                RestTemplateBuilder builder,
+                ServerResponseCache responseCache) {
+            this.serverUrl = serverUrl;
+            this.builder = builder;
+            this.responseCache = responseCache;
+        }
+
+        @Bean
+        public BookingClient<ResponseEntity<Object>> bookingClient() {
+            return new BookingClient<>(server(BookingClient.API_PREFIX));
+        }
+
+        @Bean
+        public ItemClient<ResponseEntity<Object>> itemClient() {
+            return new ItemClient<>(server(ItemClient.API_PREFIX));
+        }
+
+        @Bean
+        public ItemRequestClient<ResponseEntity<Object>> itemRequestClient() {
+            return new ItemRequestClient<>(server(ItemRequestClient.API_PREFIX));
+        }
+
+        @Bean
+        public UserClient<ResponseEntity<Object>> userClient() {
+            return new UserClient<>(server(UserClient.API_PREFIX));
+        }
+
+        private BaseClient server(String apiPrefix) {
+            return new BaseClient(apiPrefix, builder
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                    .build(),
+                    responseCache
+            );
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = REACTIVE)
+    static class Reactive {
+        private final String serverUrl;
+        private final WebClient.Builder builder;
+        private final ServerResponseCache responseCache;
+
+        Reactive(@Value("${shareit-server.url}") String serverUrl,
+                 WebClient.Builder builder,
+                 ServerResponseCache responseCache) {
+            this.serverUrl = serverUrl;
+            this.builder = builder;
+            this.responseCache = responseCache;
+        }
+
+        @Bean
+        public BookingClient<Mono<ResponseEntity<Object>>> reactiveBookingClient() {
+            return new BookingClient<>(server(BookingClient.API_PREFIX));
+        }
+
+        @Bean
+        public ItemClient<Mono<ResponseEntity<Object>>> reactiveItemClient() {
+            return new ItemClient<>(server(ItemClient.API_PREFIX));
+        }
+
+        @Bean
+        public ItemRequestClient<Mono<ResponseEntity<Object>>> reactiveItemRequestClient() {
+            return new ItemRequestClient<>(server(ItemRequestClient.API_PREFIX));
+        }
+
+        @Bean
+        public UserClient<Mono<ResponseEntity<Object>>> reactiveUserClient() {
+            return new UserClient<>(server(UserClient.API_PREFIX));
+        }
+
+        //the builder is mutable, each client gets its own copy
+        private ReactiveBaseClient server(String apiPrefix) {
+            return new ReactiveBaseClient(apiPrefix, builder.clone()
+                    .baseUrl(serverUrl + apiPrefix)
+                    .build(),
+                    responseCache
+            );
+        }
+    }
+}
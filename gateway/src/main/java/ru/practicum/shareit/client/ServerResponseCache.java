@@ -0,0 +1,228 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.client.BaseClient.prepareGatewayResponse;
+
+//GET responses per path, parameters and user: served without a server round trip while fresh (route ttl),
+//revalidated with If-None-Match afterwards. Mutations are seen only by this gateway instance, ttl bounds the rest.
+//Identical concurrent GETs that reach the server share one exchange
+public class ServerResponseCache {
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<String, Duration> ttl;
+    private final Map<String, List<String>> invalidates;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Flight, CompletableFuture<ResponseEntity<byte[]>>> flights = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public ServerResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.ttl = Map.copyOf(properties.getTtl());
+        this.invalidates = Map.copyOf(properties.getInvalidates());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server.responses");
+        this.hits = requests(meterRegistry, "hit");
+        this.revalidations = requests(meterRegistry, "revalidated");
+        this.misses = requests(meterRegistry, "miss");
+        this.coalesced = Counter.builder("shareit-server.requests.coalesced").register(meterRegistry);
+    }
+
+    //clientEtag is the If-None-Match of the incoming request, it takes precedence over the cached validator
+    Revalidation revalidation(String apiPrefix,
+                              String path,
+                              @Nullable Long userId,
+                              @Nullable Map<String, Object> parameters,
+                              @Nullable String clientEtag) {
+        Key key = new Key(apiPrefix + path, userId, parameters != null ? new TreeMap<>(parameters) : Map.of());
+        return new Revalidation(key, apiPrefix, generation(apiPrefix).get(), clientEtag, cache.getIfPresent(key));
+    }
+
+    //called once a mutating request completes, a GET still in flight keeps its older generation
+    void invalidate(String apiPrefix) {
+        generation(apiPrefix).incrementAndGet();
+        invalidates.getOrDefault(apiPrefix, List.of()).forEach(prefix -> generation(prefix).incrementAndGet());
+    }
+
+    private AtomicLong generation(String apiPrefix) {
+        return generations.computeIfAbsent(apiPrefix, prefix -> new AtomicLong());
+    }
+
+    private long ttlNanos(String path) {
+        int query = path.indexOf('?');
+        String route = query >= 0 ? path.substring(0, query) : path;
+        String longest = null;
+        for (String prefix : ttl.keySet()) {
+            if (route.startsWith(prefix) && (longest == null || prefix.length() > longest.length()))
+                longest = prefix;
+        }
+        return longest != null ? ttl.get(longest).toNanos() : 0;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit-server.responses.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Data
+    static class Key {
+        private final String path;
+        private final Long userId;
+        private final Map<String, Object> parameters;
+    }
+
+    @Data
+    private static class Flight {
+        private final Key key;
+        private final String ifNoneMatch;
+    }
+
+    @Data
+    class Revalidation {
+        private final Key key;
+        private final String apiPrefix;
+        private final long generation;
+        private final String clientEtag;
+        private final CachedResponse cached;
+
+        @Nullable
+        ResponseEntity<Object> fresh() {
+            if (cached == null
+                    || cached.getGeneration() != generation(apiPrefix).get()
+                    || System.nanoTime() - cached.getFreshUntil() >= 0)
+                return null;
+            hits.increment();
+            if (clientEtag != null && cached.matches(clientEtag))
+                return prepareGatewayResponse(HttpStatus.NOT_MODIFIED, cached.getHeaders(), null);
+            return cached.toResponse();
+        }
+
+        void addTo(HttpHeaders headers) {
+            if (clientEtag != null) headers.set(HttpHeaders.IF_NONE_MATCH, clientEtag);
+            else if (cached != null && cached.getEtag() != null) headers.set(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+
+        ResponseEntity<byte[]> exchange(HttpHeaders headers, Supplier<ResponseEntity<byte[]>> exchange) {
+            Flight flight = new Flight(key, headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            CompletableFuture<ResponseEntity<byte[]>> inFlight = flights.putIfAbsent(flight, call);
+            if (inFlight != null) {
+                coalesced.increment();
+                try {
+                    return inFlight.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw e;
+                }
+            }
+            try {
+                ResponseEntity<byte[]> response = exchange.get();
+                call.complete(response);
+                return response;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                flights.remove(flight, call);
+            }
+        }
+
+        Mono<ResponseEntity<byte[]>> exchange(HttpHeaders headers, Mono<ResponseEntity<byte[]>> exchange) {
+            return Mono.defer(() -> {
+                Flight flight = new Flight(key, headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+                CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+                CompletableFuture<ResponseEntity<byte[]>> inFlight = flights.putIfAbsent(flight, call);
+                if (inFlight != null) {
+                    coalesced.increment();
+                    //a copy, so a cancelled follower does not cancel the shared call
+                    return Mono.fromFuture(inFlight.copy());
+                }
+                return exchange
+                        .doOnSuccess(call::complete)
+                        .doOnError(call::completeExceptionally)
+                        .doFinally(signal -> {
+                            flights.remove(flight, call);
+                            call.completeExceptionally(new IllegalStateException("Запрос к серверу отменён"));
+                        });
+            });
+        }
+
+        ResponseEntity<Object> complete(HttpStatus status, @Nullable HttpHeaders serverHeaders, @Nullable byte[] body) {
+            if (status == HttpStatus.NOT_MODIFIED) {
+                revalidations.increment();
+                if (clientEtag != null || cached == null)
+                    return prepareGatewayResponse(status, serverHeaders, body);
+                cache.put(key, cached.renewed(freshUntil(), generation));
+                return cached.toResponse();
+            }
+            misses.increment();
+            String etag = serverHeaders != null ? serverHeaders.getETag() : null;
+            if (status == HttpStatus.OK && (etag != null || ttlNanos(key.getPath()) > 0))
+                cache.put(key, new CachedResponse(etag, serverHeaders, body, freshUntil(), generation));
+            else
+                cache.invalidate(key);
+            return prepareGatewayResponse(status, serverHeaders, body);
+        }
+
+        private long freshUntil() {
+            return System.nanoTime() + ttlNanos(key.getPath());
+        }
+    }
+
+    @Data
+    static class CachedResponse {
+        private final String etag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long freshUntil;
+        private final long generation;
+
+        boolean matches(String ifNoneMatch) {
+            if (etag == null) return false;
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || opaque(tag).equals(opaque(etag))) return true;
+            }
+            return false;
+        }
+
+        CachedResponse renewed(long freshUntil, long generation) {
+            return new CachedResponse(etag, headers, body, freshUntil, generation);
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return prepareGatewayResponse(HttpStatus.OK, headers, body);
+        }
+
+        private static String opaque(String tag) {
+            return tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+    }
+}
@@ -1,78 +1,81 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.client.ServerClient;
+import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
+//shared by the servlet and reactive controllers, R is what the ServerClient of the mode returns
+@RequiredArgsConstructor
+public class ItemClient<R> {
+    public static final String API_PREFIX = "/items";
 
-@Service
-public class ItemClient extends BaseClient {
-    private static final String API_PREFIX = "/items";
+    private final ServerClient<R> server;
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
-
-    public ResponseEntity<Object> searchItems(String text,
-                                              Long userId,
-                                              Integer from,
-                                              Integer size) {
+    public R searchItems(String text,
+                         LocalDateTime start,
+                         LocalDateTime end,
+                         Long userId,
+                         Integer from,
+                         Integer size) {
+        if (start == null && end == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size
+            );
+            return server.get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        }
+        if (start == null || end == null || !start.isBefore(end))
+            throw new IncorrectParameterException("Некорректно задан период поиска");
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "start", start,
+                "end", end,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return server.get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(CommentDto commentDto,
-                                                Long itemId,
-                                                Long userId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public R createComment(CommentDto commentDto,
+                           Long itemId,
+                           Long userId) {
+        if (userId == null) throw new IllegalArgumentException("Field userId is null");
+        return server.post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto,
-                                             Long itemId,
-                                             Long userId) {
-        return patch("/" + itemId, userId, itemDto);
+    public R updateItem(ItemDto itemDto,
+                        Long itemId,
+                        Long userId) {
+        return server.patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItems(Long userId,
-                                           Integer from,
-                                           Integer size) {
+    public R getItems(Long userId,
+                      Integer from,
+                      Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return server.get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto,
-                                             Long userId) {
-        return post("", userId, itemDto);
+    public R createItem(ItemDto itemDto,
+                        Long userId) {
+        return server.post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(Long itemId,
-                                          Long userId) {
-        return get("/" + itemId, userId);
+    public R getItem(Long itemId,
+                     Long userId) {
+        return server.get("/" + itemId, userId);
     }
 
-    public void deleteItem(Long itemId) {
-        delete("/" + itemId);
+    public R deleteItem(Long itemId) {
+        return server.delete("/" + itemId);
     }
 }
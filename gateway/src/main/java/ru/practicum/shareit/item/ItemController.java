@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,21 +13,28 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@ConditionalOnWebApplication(type = SERVLET)
 @Validated
 @RestController
 @AllArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
-    private final ItemClient itemClient;
+    private final ItemClient<ResponseEntity<Object>> itemClient;
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
-                                              @NotNull @RequestParam(required = false) String text) {
-        return itemClient.searchItems(text, userId, from, size);
+                                              @NotNull @RequestParam(required = false) String text,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime start,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime end) {
+        return itemClient.searchItems(text, start, end, userId, from, size);
     }
 
     @GetMapping()
@@ -60,7 +69,6 @@ public class ItemController {
     public ResponseEntity<Object> createItemComment(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
                                                     @RequestBody @Valid CommentDto commentDto,
                                                     @PathVariable Long itemId) {
-        if (userId == null) throw new IllegalArgumentException("Field userId is null");
         return itemClient.createComment(commentDto, itemId, userId);
     }
 
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@ConditionalOnWebApplication(type = REACTIVE)
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/items")
+public class ReactiveItemController {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final ItemClient<Mono<ResponseEntity<Object>>> itemClient;
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @NotNull @RequestParam(required = false) String text,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime start,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime end) {
+        return itemClient.searchItems(text, start, end, userId, from, size);
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<Object>> getAllItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemClient.getItems(userId, from, size);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                   @RequestBody ItemDto itemDto,
+                                                   @PathVariable Long itemId) {
+        return itemClient.updateItem(itemDto, itemId, userId);
+    }
+
+    @PostMapping()
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                   @RequestBody @Valid ItemDto itemDto) {
+        return itemClient.createItem(itemDto, userId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                @PathVariable Long itemId) {
+        return itemClient.getItem(itemId, userId);
+    }
+
+    @PostMapping("{itemId}/comment")
+    public Mono<ResponseEntity<Object>> createItemComment(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
+                                                          @RequestBody @Valid CommentDto commentDto,
+                                                          @PathVariable Long itemId) {
+        return itemClient.createComment(commentDto, itemId, userId);
+    }
+
+    @DeleteMapping("/{itemId}")
+    public Mono<Void> deleteItem(@PathVariable long itemId) {
+        return itemClient.deleteItem(itemId).then();
+    }
+}
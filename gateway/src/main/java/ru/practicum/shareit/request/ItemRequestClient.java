@@ -1,48 +1,35 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.client.ServerClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
 
-@Service
-public class ItemRequestClient extends BaseClient {
-    private static final String API_PREFIX = "/requests";
+//shared by the servlet and reactive controllers, R is what the ServerClient of the mode returns
+@RequiredArgsConstructor
+public class ItemRequestClient<R> {
+    public static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
-
-    public ResponseEntity<Object> createItemRequest(ItemRequestDto itemRequestDto, Long userId) {
-        return post("", userId, itemRequestDto);
+    private final ServerClient<R> server;
 
+    public R createItemRequest(ItemRequestDto itemRequestDto, Long userId) {
+        return server.post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Integer from, Integer size, Long userId) {
+    public R getAllItemRequests(Integer from, Integer size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all/?from={from}&size={size}", userId, parameters);
+        return server.get("/all/?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequest(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public R getItemRequest(Long requestId, Long userId) {
+        return server.get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId) {
-        return get("", userId);
+    public R getItemRequests(Long userId) {
+        return server.get("", userId);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,13 +11,16 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+@ConditionalOnWebApplication(type = SERVLET)
 @Validated
 @RestController
 @AllArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
-    private final ItemRequestClient itemRequestClient;
+    private final ItemRequestClient<ResponseEntity<Object>> itemRequestClient;
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllItemRequests(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
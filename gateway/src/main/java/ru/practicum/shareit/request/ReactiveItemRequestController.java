@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+@ConditionalOnWebApplication(type = REACTIVE)
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping(path = "/requests")
+public class ReactiveItemRequestController {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final ItemRequestClient<Mono<ResponseEntity<Object>>> itemRequestClient;
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemRequestClient.getAllItemRequests(from, size, userId);
+    }
+
+    @PostMapping()
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
+                                                          @RequestBody @Valid ItemRequestDto itemRequestDto) {
+        return itemRequestClient.createItemRequest(itemRequestDto, userId);
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId) {
+        return itemRequestClient.getItemRequests(userId);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Object>> getItemRequest(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
+                                                       @PathVariable Long requestId) {
+        return itemRequestClient.getItemRequest(requestId, userId);
+    }
+}
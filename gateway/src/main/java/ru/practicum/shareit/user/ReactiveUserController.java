@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.Create;
+import ru.practicum.shareit.user.dto.Update;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.constraints.NotNull;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+@ConditionalOnWebApplication(type = REACTIVE)
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping(path = "/users")
+public class ReactiveUserController {
+    private final UserClient<Mono<ResponseEntity<Object>>> userClient;
+
+    @PostMapping()
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Validated(Create.class) UserDto userDto) {
+        return userClient.createUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Validated(Update.class) UserDto userDto,
+                                                   @PathVariable Long userId) {
+        return userClient.updateUser(userDto, userId);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUser(@NotNull @PathVariable Long userId) {
+        return userClient.getUser(userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<Void> deleteUser(@PathVariable Long userId) {
+        return userClient.deleteUser(userId).then();
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<Object>> getAllUsers() {
+        return userClient.getUsers();
+    }
+}
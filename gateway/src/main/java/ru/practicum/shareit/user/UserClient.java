@@ -1,45 +1,33 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.client.ServerClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
-@Service
-public class UserClient extends BaseClient {
-    private static final String API_PREFIX = "/users";
-
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
+//shared by the servlet and reactive controllers, R is what the ServerClient of the mode returns
+@RequiredArgsConstructor
+public class UserClient<R> {
+    public static final String API_PREFIX = "/users";
+
+    private final ServerClient<R> server;
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, Long userId) {
-        return patch("/" + userId, userDto);
+    public R updateUser(UserDto userDto, Long userId) {
+        return server.patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
-        return post("", userDto);
+    public R createUser(UserDto userDto) {
+        return server.post("", userDto);
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+    public R getUser(Long userId) {
+        return server.get("/" + userId);
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public R getUsers() {
+        return server.get("");
     }
 
-    public void deleteUser(Long userId) {
-        delete("/" + userId);
+    public R deleteUser(Long userId) {
+        return server.delete("/" + userId);
     }
 }
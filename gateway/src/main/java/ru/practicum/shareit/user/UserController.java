@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,12 +11,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.constraints.NotNull;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+@ConditionalOnWebApplication(type = SERVLET)
 @Validated
 @RestController
 @AllArgsConstructor
 @RequestMapping(path = "/users")
 public class UserController {
-    private final UserClient userClient;
+    private final UserClient<ResponseEntity<Object>> userClient;
 
     @PostMapping()
     public ResponseEntity<Object> createUser(@RequestBody @Validated(Create.class) UserDto userDto) {
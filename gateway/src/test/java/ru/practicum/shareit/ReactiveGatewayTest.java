@@ -0,0 +1,109 @@
+package ru.practicum.shareit;
+
+import brave.Span;
+import brave.handler.MutableSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.ReactiveBookingController;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.sleuth.sampler.probability=1"
+})
+@AutoConfigureWebTestClient
+@Import(ServerStub.class)
+class ReactiveGatewayTest {
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", ServerStub::url);
+    }
+
+    @BeforeEach
+    void initialize() {
+        ServerStub.requests().clear();
+        ServerStub.spans().clear();
+    }
+
+    @Test
+    void bootsReactiveControllersTest() {
+        assertEquals(1, context.getBeanNamesForType(ReactiveBookingController.class).length);
+        assertEquals(4, context.getBeanNamesForType(BookingClient.class).length
+                + context.getBeanNamesForType(ItemClient.class).length
+                + context.getBeanNamesForType(ItemRequestClient.class).length
+                + context.getBeanNamesForType(UserClient.class).length);
+    }
+
+    @Test
+    void createBookingValidatesDatesTest() {
+        webTestClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookingRequestDto(1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Некорректная дата бронирования");
+    }
+
+    @Test
+    void unknownStateTest() {
+        webTestClient.get()
+                .uri("/bookings?state=SOMETIMES")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: SOMETIMES");
+    }
+
+    @Test
+    void propagatesTraceTest() {
+        webTestClient.get()
+                .uri("/bookings?state=ALL")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+        assertTraceParent();
+    }
+
+    //the server continues the trace of the gateway from the span of its call
+    private static void assertTraceParent() {
+        assertEquals(1, ServerStub.requests().size());
+        String[] traceParent = ServerStub.requests().get(0).getFirst("traceparent").split("-");
+        MutableSpan client = ServerStub.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.CLIENT)
+                .findFirst()
+                .orElseThrow();
+        MutableSpan server = ServerStub.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.SERVER)
+                .findFirst()
+                .orElseThrow();
+        //64-bit trace ids are left-padded to the 32 hex digits of traceparent
+        assertEquals(traceParent[1], "0".repeat(32 - server.traceId().length()) + server.traceId());
+        assertEquals(server.traceId(), client.traceId());
+        assertEquals(traceParent[2], client.id());
+        assertEquals(server.id(), client.parentId());
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//the shareit server answering every request with an empty json list, keeps the headers it received;
+//imported as a configuration it also keeps the spans the gateway finished
+@TestConfiguration
+public class ServerStub {
+    private static final byte[] BODY = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final HttpServer SERVER = start();
+    private static final List<Headers> REQUESTS = new CopyOnWriteArrayList<>();
+    private static final List<MutableSpan> SPANS = new CopyOnWriteArrayList<>();
+
+    public static String url() {
+        return "http://localhost:" + SERVER.getAddress().getPort();
+    }
+
+    public static List<Headers> requests() {
+        return REQUESTS;
+    }
+
+    public static List<MutableSpan> spans() {
+        return SPANS;
+    }
+
+    @Bean
+    public SpanHandler serverStubSpanHandler() {
+        return new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                SPANS.add(span);
+                return true;
+            }
+        };
+    }
+
+    private static HttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                REQUESTS.add(exchange.getRequestHeaders());
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BODY);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
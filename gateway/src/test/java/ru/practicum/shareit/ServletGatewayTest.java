@@ -0,0 +1,91 @@
+package ru.practicum.shareit;
+
+import brave.Span;
+import brave.handler.MutableSpan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sleuth.sampler.probability=1")
+@AutoConfigureMockMvc
+@Import(ServerStub.class)
+class ServletGatewayTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", ServerStub::url);
+    }
+
+    @BeforeEach
+    void initialize() {
+        ServerStub.requests().clear();
+        ServerStub.spans().clear();
+    }
+
+    @Test
+    void createBookingValidatesDatesTest() throws Exception {
+        BookingRequestDto requestDto = new BookingRequestDto(1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1));
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Некорректная дата бронирования"));
+    }
+
+    @Test
+    void unknownStateTest() throws Exception {
+        mockMvc.perform(get("/bookings?state=SOMETIMES")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown state: SOMETIMES"));
+    }
+
+    @Test
+    void propagatesTraceTest() throws Exception {
+        mockMvc.perform(get("/bookings?state=ALL")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+        assertTraceParent();
+    }
+
+    //the server continues the trace of the gateway from the span of its call
+    private static void assertTraceParent() {
+        assertEquals(1, ServerStub.requests().size());
+        String[] traceParent = ServerStub.requests().get(0).getFirst("traceparent").split("-");
+        MutableSpan client = ServerStub.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.CLIENT)
+                .findFirst()
+                .orElseThrow();
+        MutableSpan server = ServerStub.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.SERVER)
+                .findFirst()
+                .orElseThrow();
+        //64-bit trace ids are left-padded to the 32 hex digits of traceparent
+        assertEquals(traceParent[1], "0".repeat(32 - server.traceId().length()) + server.traceId());
+        assertEquals(server.traceId(), client.traceId());
+        assertEquals(traceParent[2], client.id());
+        assertEquals(server.id(), client.parentId());
+    }
+}
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerResponseCacheTest {
+    private static final String ETAG = "\"1\"";
+    private static final long USER_ID = 1L;
+
+    private MeterRegistry meterRegistry;
+    private ServerResponseCache responseCache;
+
+    @BeforeEach
+    void initialize() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        //responses under /items stay fresh, /bookings is revalidated on every request
+        properties.setTtl(Map.of("/items", Duration.ofHours(1)));
+        properties.setInvalidates(Map.of("/users", List.of("/items")));
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new ServerResponseCache(properties, meterRegistry);
+    }
+
+    @Test
+    void freshHitTest() {
+        ServerResponseCache.Revalidation miss = revalidation("/items", null);
+        assertNull(miss.fresh());
+        miss.complete(HttpStatus.OK, etagHeaders(), body("item"));
+
+        ResponseEntity<Object> hit = revalidation("/items", null).fresh();
+        assertNotNull(hit);
+        assertEquals(HttpStatus.OK, hit.getStatusCode());
+        assertEquals(ETAG, hit.getHeaders().getETag());
+        assertArrayEquals(body("item"), (byte[]) hit.getBody());
+        assertNull(revalidation("/items", "/2", null, USER_ID).fresh());
+        assertNull(revalidation("/items", "", null, 2L).fresh());
+    }
+
+    @Test
+    void expiredResponseRevalidatedWithNotModifiedTest() {
+        revalidation("/bookings", null).complete(HttpStatus.OK, etagHeaders(), body("booking"));
+
+        ServerResponseCache.Revalidation stale = revalidation("/bookings", null);
+        assertNull(stale.fresh());
+        HttpHeaders headers = new HttpHeaders();
+        stale.addTo(headers);
+        assertEquals(ETAG, headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        ResponseEntity<Object> response = stale.complete(HttpStatus.NOT_MODIFIED, etagHeaders(), null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body("booking"), (byte[]) response.getBody());
+        assertEquals(1.0, meterRegistry.get("shareit-server.responses.requests").tag("result", "revalidated").counter().count());
+    }
+
+    @Test
+    void clientEtagTakesPrecedenceTest() {
+        revalidation("/bookings", null).complete(HttpStatus.OK, etagHeaders(), body("booking"));
+
+        ServerResponseCache.Revalidation revalidation = revalidation("/bookings", "\"0\"");
+        HttpHeaders headers = new HttpHeaders();
+        revalidation.addTo(headers);
+        assertEquals("\"0\"", headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        ResponseEntity<Object> response = revalidation.complete(HttpStatus.NOT_MODIFIED, etagHeaders(), null);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+
+        revalidation("/items", null).complete(HttpStatus.OK, etagHeaders(), body("item"));
+        ResponseEntity<Object> fresh = revalidation("/items", "W/" + ETAG).fresh();
+        assertNotNull(fresh);
+        assertEquals(HttpStatus.NOT_MODIFIED, fresh.getStatusCode());
+        assertNull(fresh.getBody());
+    }
+
+    @Test
+    void invalidatedByMutationTest() {
+        revalidation("/items", null).complete(HttpStatus.OK, etagHeaders(), body("item"));
+        assertNotNull(revalidation("/items", null).fresh());
+
+        responseCache.invalidate("/bookings");
+        assertNotNull(revalidation("/items", null).fresh());
+
+        responseCache.invalidate("/users");
+        ServerResponseCache.Revalidation stale = revalidation("/items", null);
+        assertNull(stale.fresh());
+        HttpHeaders headers = new HttpHeaders();
+        stale.addTo(headers);
+        assertEquals(ETAG, headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void concurrentFollowersTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger exchanges = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> leader = CompletableFuture.supplyAsync(() ->
+                send(revalidation("/bookings", null), () -> {
+                    exchanges.incrementAndGet();
+                    await(release);
+                    return ResponseEntity.ok().headers(etagHeaders()).body(body("booking"));
+                }));
+        awaitExchanges(exchanges, 1);
+        CompletableFuture<ResponseEntity<Object>> follower = CompletableFuture.supplyAsync(() ->
+                send(revalidation("/bookings", null), () -> {
+                    exchanges.incrementAndGet();
+                    return ResponseEntity.ok().body(body("other"));
+                }));
+        awaitCoalesced(1);
+        //a different If-None-Match is a different exchange, the client gets the server's own 304
+        ResponseEntity<Object> withClientEtag = send(revalidation("/bookings", ETAG), () -> {
+            exchanges.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(etagHeaders()).build();
+        });
+        release.countDown();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, withClientEtag.getStatusCode());
+        assertArrayEquals(body("booking"), (byte[]) leader.get(5, TimeUnit.SECONDS).getBody());
+        assertArrayEquals(body("booking"), (byte[]) follower.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    void cancelledReactiveFollowerTest() {
+        Sinks.One<ResponseEntity<byte[]>> server = Sinks.one();
+        AtomicBoolean serverCancelled = new AtomicBoolean();
+        Mono<ResponseEntity<byte[]>> exchange = server.asMono().doOnCancel(() -> serverCancelled.set(true));
+        AtomicReference<ResponseEntity<byte[]>> leaderResponse = new AtomicReference<>();
+
+        revalidation("/bookings", null).exchange(new HttpHeaders(), exchange).subscribe(leaderResponse::set);
+        Disposable follower = revalidation("/bookings", null)
+                .exchange(new HttpHeaders(), Mono.error(new IllegalStateException("второй запрос к серверу")))
+                .subscribe();
+        awaitCoalesced(1);
+        follower.dispose();
+
+        assertFalse(serverCancelled.get());
+        server.tryEmitValue(ResponseEntity.ok().body(body("booking")));
+        assertNotNull(leaderResponse.get());
+        assertArrayEquals(body("booking"), leaderResponse.get().getBody());
+    }
+
+    private ServerResponseCache.Revalidation revalidation(String apiPrefix, String clientEtag) {
+        return revalidation(apiPrefix, "", clientEtag, USER_ID);
+    }
+
+    private ServerResponseCache.Revalidation revalidation(String apiPrefix, String path, String clientEtag, long userId) {
+        return responseCache.revalidation(apiPrefix, path, userId, null, clientEtag);
+    }
+
+    private static ResponseEntity<Object> send(ServerResponseCache.Revalidation revalidation,
+                                               Supplier<ResponseEntity<byte[]>> server) {
+        HttpHeaders headers = new HttpHeaders();
+        revalidation.addTo(headers);
+        ResponseEntity<byte[]> response = revalidation.exchange(headers, server);
+        return revalidation.complete(response.getStatusCode(), response.getHeaders(), response.getBody());
+    }
+
+    private void awaitCoalesced(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("shareit-server.requests.coalesced").counter().count() < count) {
+            assertTrue(System.nanoTime() < deadline, "Запрос не присоединился к выполняющемуся");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitExchanges(AtomicInteger exchanges, int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (exchanges.get() < count) {
+            assertTrue(System.nanoTime() < deadline, "Запрос к серверу не начался");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpHeaders etagHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(ETAG);
+        return headers;
+    }
+
+    private static byte[] body(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
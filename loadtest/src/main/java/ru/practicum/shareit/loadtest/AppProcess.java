@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//server and gateway run as separate java -jar processes: they share package and class names, so they cannot share
+//a class loader, and a separate jvm keeps the driver out of their heap and gc
+@Slf4j
+public class AppProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final String name;
+    @Getter
+    private final int port;
+    private final Path logFile;
+    private final Process process;
+
+    private AppProcess(String name, int port, Path logFile, Process process) {
+        this.name = name;
+        this.port = port;
+        this.logFile = logFile;
+        this.process = process;
+    }
+
+    static AppProcess start(String name,
+                            Path jar,
+                            String jvmArgs,
+                            Path workDir,
+                            Map<String, String> environment,
+                            List<String> arguments) throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isBlank()) command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        Path logFile = workDir.resolve(name + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().putAll(environment);
+        AppProcess app = new AppProcess(name, port, logFile, builder.start());
+        log.info("{} запущен на порту {}, лог {}", name, port, logFile);
+        return app;
+    }
+
+    String url() {
+        return "http://localhost:" + port;
+    }
+
+    void awaitHealthy(HttpClient client) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(url() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive())
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue() + ", см. " + logFile);
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException e) {
+                //not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT + ", см. " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+//rows are generated by formulas over their ids, so the driver can pick an owner, a booker or an available item
+//without reading anything back. The seeding sql and the java methods below must stay in step
+@Slf4j
+@RequiredArgsConstructor
+public class Dataset {
+    static final List<String> WORDS = List.of("drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "projector",
+            "hammer", "guitar", "scooter", "mixer", "tripod", "boat", "grill", "speaker");
+
+    private final LoadTestSettings settings;
+
+    //users and items are owned round robin, the booker of an item is the next user after its owner
+    long ownerOf(long itemId) {
+        return (itemId - 1) % settings.getUsers() + 1;
+    }
+
+    long bookerOf(long itemId) {
+        return ownerOf(itemId) % settings.getUsers() + 1;
+    }
+
+    long itemOfBooking(long bookingId) {
+        return (bookingId - 1) % settings.getItems() + 1;
+    }
+
+    //every 4th booking is a past approved one, its booker may comment on the item
+    boolean isPastApproved(long bookingId) {
+        return bookingId % 4 == 0;
+    }
+
+    boolean isAvailable(long itemId) {
+        return itemId % 10 != 0;
+    }
+
+    void seed(DataSource dataSource) throws SQLException {
+        long users = settings.getUsers();
+        long items = settings.getItems();
+        long bookings = settings.getBookings();
+        long comments = settings.getComments();
+        long requests = settings.getRequests();
+        String words = "(select array['" + String.join("','", WORDS) + "'] as w) words";
+        int n = WORDS.size();
+        String booker = "((b.item - 1) % " + users + " + 1) % " + users + " + 1";
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            execute(statement, "users", "insert into users (name, email) " +
+                    "select 'user' || g, 'user' || g || '@loadtest.ru' from generate_series(1, " + users + ") g");
+            execute(statement, "requests", "insert into requests (description, requester_id, created) " +
+                    "select 'need a ' || w[g % " + n + " + 1] || ' for ' || g || ' days', g % " + users + " + 1, " +
+                    "current_date - (g % 365) from generate_series(1, " + requests + ") g, " + words);
+            execute(statement, "items", "insert into items (name, description, available, owner_id, request_id) " +
+                    "select w[g % " + n + " + 1] || ' ' || g, " +
+                    "'good ' || w[g % " + n + " + 1] || ' with a ' || w[(g / " + n + ") % " + n + " + 1], " +
+                    "g % 10 <> 0, (g - 1) % " + users + " + 1, " +
+                    "case when g % 4 = 0 then (g / 4 - 1) % " + requests + " + 1 end " +
+                    "from generate_series(1, " + items + ") g, " + words);
+            execute(statement, "bookings", "insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                    "select b.start, b.start + interval '1 day', b.item, " + booker + ", " +
+                    "case b.g % 4 when 0 then 'APPROVED' when 1 then 'WAITING' when 2 then 'APPROVED' else 'REJECTED' end " +
+                    "from (select g, (g - 1) % " + items + " + 1 as item, " +
+                    "case when g % 4 in (0, 3) then localtimestamp - (g % 300 + 2) * interval '1 day' " +
+                    "else localtimestamp + (g % 180 + 1) * interval '1 day' end as start " +
+                    "from generate_series(1, " + bookings + ") g) b");
+            execute(statement, "comments", "insert into comments (text, item_id, author_id, created) " +
+                    "select 'comment ' || b.g, b.item, " + booker + ", localtimestamp - (b.g % 100) * interval '1 hour' " +
+                    "from (select g, (g - 1) % " + items + " + 1 as item from generate_series(1, " + comments + ") g) b");
+            //stale rows, the server sweeper fills in last and next bookings
+            execute(statement, "item_bookings", "insert into item_bookings (item_id, refresh_at) " +
+                    "select distinct item_id, localtimestamp from bookings");
+            statement.execute("analyze");
+        }
+    }
+
+    long staleItemBookings(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "select count(*) from item_bookings where refresh_at <= localtimestamp")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(Statement statement, String table, String sql) throws SQLException {
+        long started = System.nanoTime();
+        int rows = statement.executeUpdate(sql);
+        log.info("{}: {} строк за {} мс", table, rows, (System.nanoTime() - started) / 1_000_000);
+    }
+}
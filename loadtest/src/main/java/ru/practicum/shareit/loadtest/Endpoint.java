@@ -0,0 +1,103 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpRequest;
+import java.util.Map;
+
+//the REST endpoints a mix can name, each one picks its parameters from the seeded dataset
+@Getter
+@RequiredArgsConstructor
+public enum Endpoint {
+    GET_ITEM("getItem") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/items/" + workload.item(), workload.user());
+        }
+    },
+    GET_ITEMS("getItems") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/items?" + workload.page(), workload.getDataset().ownerOf(workload.item()));
+        }
+    },
+    SEARCH("search") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/items/search?text=" + workload.word() + "&" + workload.page(), workload.user());
+        }
+    },
+    GET_BOOKINGS("getBookings") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/bookings?state=" + workload.state() + "&" + workload.page(),
+                    workload.getDataset().bookerOf(workload.item()));
+        }
+    },
+    GET_OWNER_BOOKINGS("getOwnerBookings") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/bookings/owner?state=" + workload.state() + "&" + workload.page(),
+                    workload.getDataset().ownerOf(workload.item()));
+        }
+    },
+    GET_BOOKING("getBooking") {
+        @Override
+        HttpRequest request(Workload workload) {
+            long bookingId = workload.booking();
+            return workload.get("/bookings/" + bookingId,
+                    workload.getDataset().bookerOf(workload.getDataset().itemOfBooking(bookingId)));
+        }
+    },
+    GET_REQUESTS("getRequests") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/requests", workload.user());
+        }
+    },
+    GET_ALL_REQUESTS("getAllRequests") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/requests/all?" + workload.page(), workload.user());
+        }
+    },
+    GET_REQUEST("getRequest") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/requests/" + workload.itemRequest(), workload.user());
+        }
+    },
+    GET_USER("getUser") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/users/" + workload.user(), null);
+        }
+    },
+    CREATE_BOOKING("createBooking") {
+        @Override
+        HttpRequest request(Workload workload) {
+            long itemId = workload.availableItem();
+            return workload.post("/bookings", workload.getDataset().bookerOf(itemId), workload.futureBooking(itemId));
+        }
+    },
+    CREATE_COMMENT("createComment") {
+        @Override
+        HttpRequest request(Workload workload) {
+            long itemId = workload.getDataset().itemOfBooking(workload.pastApprovedBooking());
+            return workload.post("/items/" + itemId + "/comment", workload.getDataset().bookerOf(itemId),
+                    Map.of("text", "comment from the load test"));
+        }
+    };
+
+    private final String key;
+
+    abstract HttpRequest request(Workload workload);
+
+    static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) return endpoint;
+        }
+        throw new IllegalArgumentException("Неизвестный эндпоинт " + key);
+    }
+}
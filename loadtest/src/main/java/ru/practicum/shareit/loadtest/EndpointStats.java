@@ -0,0 +1,49 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//latencies in microseconds from the intended send time, so a stalled server is not hidden by a waiting driver
+@Getter
+public class EndpointStats {
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, int status) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE));
+        if (status >= 400) fail(String.valueOf(status));
+    }
+
+    void fail(long latencyNanos, Throwable error) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE));
+        fail(error.getClass().getSimpleName());
+    }
+
+    //not sent at all, max-in-flight was reached
+    void drop() {
+        dropped.increment();
+    }
+
+    Map<String, Long> failureCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        failures.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+
+    private void fail(String reason) {
+        errors.increment();
+        failures.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+}
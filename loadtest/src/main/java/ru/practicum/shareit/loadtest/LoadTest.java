@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+//mvn -Ploadtest verify -DskipTests [-Dloadtest.rate=500 -Dloadtest.items=100000 ...]
+//embedded postgres, the server's own migrations, seeded rows, then the server and the gateway jars as child processes
+//and an open-loop mix through the gateway. The report goes to stdout and target/loadtest
+@Slf4j
+public class LoadTest {
+    private static final String DATABASE = "postgres";
+    //the sweeper fills in last and next bookings of the seeded items, the load starts once it has caught up
+    private static final Duration SWEEPER_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration SWEEPER_TIMEOUT = Duration.ofMinutes(5);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        requireJar(settings.getServerJar());
+        requireJar(settings.getGatewayJar());
+        Files.createDirectories(settings.getWorkDir());
+        Dataset dataset = new Dataset(settings);
+        Random random = new Random(settings.getSeed());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            DataSource dataSource = postgres.getPostgresDatabase();
+            migrate(settings.getServerJar(), dataSource);
+            dataset.seed(dataSource);
+            Map<String, String> database = Map.of(
+                    "SPRING_DATASOURCE_URL", postgres.getJdbcUrl(DATABASE, DATABASE),
+                    "SPRING_DATASOURCE_USERNAME", DATABASE,
+                    "SPRING_DATASOURCE_PASSWORD", DATABASE);
+            try (AppProcess server = AppProcess.start("server", settings.getServerJar(), settings.getAppJvmArgs(),
+                    settings.getWorkDir(), database,
+                    List.of("--shareit.item-bookings.sweeper.interval=" + SWEEPER_INTERVAL.toMillis()))) {
+                server.awaitHealthy(client);
+                //the gateway logs every RestTemplate exchange at debug by default
+                try (AppProcess gateway = AppProcess.start("gateway", settings.getGatewayJar(), settings.getAppJvmArgs(),
+                        settings.getWorkDir(), Map.of("SHAREIT_SERVER_URL", server.url()),
+                        List.of("--logging.level.org.springframework.web.client.RestTemplate=INFO"))) {
+                    gateway.awaitHealthy(client);
+                    awaitItemBookings(dataset, dataSource);
+                    Workload workload = new Workload(settings, dataset, gateway.url(), random);
+                    Map<Endpoint, EndpointStats> stats = new OpenLoopDriver(settings, workload, client, random).run();
+                    Report report = new Report(settings, stats);
+                    report.print(System.out);
+                    report.write(settings.getWorkDir());
+                }
+            }
+        }
+    }
+
+    //migrations are read from the server jar itself, so the schema is exactly the one the server expects
+    private static void migrate(Path serverJar, DataSource dataSource) throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{serverJar.toUri().toURL()}, null)) {
+            Flyway.configure(classLoader)
+                    .dataSource(dataSource)
+                    .locations("classpath:BOOT-INF/classes/db/migration", "classpath:BOOT-INF/classes/db/vendor/postgresql")
+                    .load()
+                    .migrate();
+        }
+    }
+
+    private static void awaitItemBookings(Dataset dataset, DataSource dataSource) throws Exception {
+        long deadline = System.nanoTime() + SWEEPER_TIMEOUT.toNanos();
+        long stale;
+        while ((stale = dataset.staleItemBookings(dataSource)) > 0) {
+            if (System.nanoTime() > deadline)
+                throw new IllegalStateException("Последние/следующие бронирования не обновлены для " + stale + " вещей");
+            Thread.sleep(SWEEPER_INTERVAL.toMillis() / 5);
+        }
+    }
+
+    private static void requireJar(Path jar) {
+        if (!Files.isRegularFile(jar))
+            throw new IllegalStateException("Не найден " + jar + ", соберите проект: mvn -Ploadtest verify -DskipTests");
+    }
+}
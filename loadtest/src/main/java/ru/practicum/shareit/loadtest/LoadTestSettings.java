@@ -0,0 +1,88 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//everything is read from loadtest.* system properties, the defaults live in loadtest/pom.xml
+@Value
+@Builder
+public class LoadTestSettings {
+    Path serverJar;
+    Path gatewayJar;
+    Path workDir;
+    String appJvmArgs;
+    int users;
+    int items;
+    int bookings;
+    int comments;
+    int requests;
+    double rate;
+    Duration warmup;
+    Duration duration;
+    int maxInFlight;
+    Map<Endpoint, Integer> mix;
+    long seed;
+
+    public static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = LoadTestSettings.builder()
+                .serverJar(Path.of(property("server-jar", null)))
+                .gatewayJar(Path.of(property("gateway-jar", null)))
+                .workDir(Path.of(property("work-dir", "target/loadtest")))
+                .appJvmArgs(property("app-jvm-args", "-Xmx512m"))
+                .users(positive("users", "1000"))
+                .items(positive("items", "10000"))
+                .bookings(positive("bookings", "50000"))
+                .comments(Integer.parseInt(property("comments", "20000")))
+                .requests(positive("requests", "2000"))
+                .rate(Double.parseDouble(property("rate", "200")))
+                .warmup(duration(property("warmup", "15s")))
+                .duration(duration(property("duration", "60s")))
+                .maxInFlight(positive("max-in-flight", "1000"))
+                .mix(mix(property("mix", "getItem:1")))
+                .seed(Long.parseLong(property("seed", "42")))
+                .build();
+        //an owner never books own items, and every 4th booking is a past approved one
+        if (settings.getUsers() < 2) throw new IllegalArgumentException("loadtest.users должен быть не меньше 2");
+        if (settings.getBookings() < 4) throw new IllegalArgumentException("loadtest.bookings должен быть не меньше 4");
+        return settings;
+    }
+
+    //getItem:30,search:10 - relative weights, not percentages
+    static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Некорректный элемент loadtest.mix: " + entry);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) mix.put(Endpoint.of(parts[0].trim()), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("В loadtest.mix нет ни одного эндпоинта");
+        return mix;
+    }
+
+    //500ms, 30s, 2m
+    static Duration duration(String value) {
+        String text = value.trim();
+        if (text.endsWith("ms")) return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        if (text.endsWith("s")) return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        if (text.endsWith("m")) return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    private static int positive(String name, String defaultValue) {
+        int value = Integer.parseInt(property(name, defaultValue));
+        if (value <= 0) throw new IllegalArgumentException("loadtest." + name + " должен быть больше нуля");
+        return value;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name, defaultValue);
+        if (value == null) throw new IllegalArgumentException("Не задано свойство loadtest." + name);
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+//open loop: arrivals follow a poisson process at the configured rate whatever the response times are,
+//a slow system gets a growing queue instead of a slower client
+@Slf4j
+public class OpenLoopDriver {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final Workload workload;
+    private final HttpClient client;
+    private final Random random;
+    private final List<Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopDriver(LoadTestSettings settings, Workload workload, HttpClient client, Random random) {
+        this.settings = settings;
+        this.workload = workload;
+        this.client = client;
+        this.random = random;
+        this.endpoints = List.copyOf(settings.getMix().keySet());
+        this.cumulativeWeights = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            total += settings.getMix().get(endpoints.get(i));
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    //requests sent during the warmup are recorded into throwaway stats, even when they complete later
+    Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        Map<Endpoint, EndpointStats> warmup = newStats();
+        Map<Endpoint, EndpointStats> measured = newStats();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        long started = System.nanoTime();
+        long measureFrom = started + settings.getWarmup().toNanos();
+        long measureUntil = measureFrom + settings.getDuration().toNanos();
+        log.info("Нагрузка {} запросов/с: прогрев {}, замер {}", settings.getRate(), settings.getWarmup(), settings.getDuration());
+        long intended = started;
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (intended - measureUntil >= 0) break;
+            Endpoint endpoint = pick();
+            HttpRequest request = endpoint.request(workload);
+            EndpointStats stats = (intended - measureFrom < 0 ? warmup : measured).get(endpoint);
+            long delay = intended - System.nanoTime();
+            if (delay > 0) LockSupport.parkNanos(delay);
+            send(request, stats, intended);
+        }
+        drain();
+        return measured;
+    }
+
+    private void send(HttpRequest request, EndpointStats stats, long intended) {
+        if (inFlight.incrementAndGet() > settings.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            stats.drop();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    if (error != null)
+                        stats.fail(latency, error instanceof CompletionException ? error.getCause() : error);
+                    else
+                        stats.record(latency, response.statusCode());
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) Thread.sleep(50);
+        if (inFlight.get() > 0) log.warn("{} запросов не завершились за {}", inFlight.get(), DRAIN_TIMEOUT);
+    }
+
+    private Endpoint pick() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) return endpoints.get(i);
+        }
+        throw new IllegalStateException();
+    }
+
+    private Map<Endpoint, EndpointStats> newStats() {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        endpoints.forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+//one line per endpoint in milliseconds, plus a .hgrm percentile distribution per endpoint for plotting
+public class Report {
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String HEADER_FORMAT = "%-18s %9s %8s %8s %9s %9s %9s %9s %9s %9s%n";
+    private static final String ROW_FORMAT = "%-18s %9d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+
+    private final LoadTestSettings settings;
+    private final Map<Endpoint, EndpointStats> stats;
+
+    public Report(LoadTestSettings settings, Map<Endpoint, EndpointStats> stats) {
+        this.settings = settings;
+        this.stats = stats;
+    }
+
+    void print(PrintStream out) {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        out.printf("users=%d items=%d bookings=%d comments=%d requests=%d rate=%.0f/s duration=%s%n",
+                settings.getUsers(), settings.getItems(), settings.getBookings(), settings.getComments(),
+                settings.getRequests(), settings.getRate(), settings.getDuration());
+        out.printf(HEADER_FORMAT, "endpoint", "count", "errors", "dropped", "rps", "p50", "p90", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram histogram = endpointStats.getHistogram();
+            total.add(histogram);
+            errors += endpointStats.getErrors().sum();
+            dropped += endpointStats.getDropped().sum();
+            row(out, entry.getKey().getKey(), histogram, endpointStats.getErrors().sum(),
+                    endpointStats.getDropped().sum(), seconds);
+        }
+        row(out, "total", total, errors, dropped, seconds);
+        stats.forEach((endpoint, endpointStats) -> {
+            if (!endpointStats.getFailures().isEmpty())
+                out.printf("%s errors: %s%n", endpoint.getKey(), endpointStats.failureCounts());
+        });
+    }
+
+    void write(Path directory) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("report.txt")), true,
+                StandardCharsets.UTF_8)) {
+            print(out);
+        }
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    directory.resolve(entry.getKey().getKey() + ".hgrm")), true, StandardCharsets.UTF_8)) {
+                entry.getValue().getHistogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void row(PrintStream out, String name, Histogram histogram, long errors, long dropped, double seconds) {
+        out.printf(ROW_FORMAT, name,
+                histogram.getTotalCount(),
+                errors,
+                dropped,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
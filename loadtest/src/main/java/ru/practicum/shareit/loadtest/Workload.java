@@ -0,0 +1,109 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+//request parameters for the endpoints, drawn from one seeded random so a run can be repeated.
+//Only the driver thread calls it
+public class Workload {
+    static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "FUTURE", "PAST", "REJECTED", "WAITING");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    @Getter
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final Random random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public Workload(LoadTestSettings settings, Dataset dataset, String baseUrl, Random random) {
+        this.settings = settings;
+        this.dataset = dataset;
+        this.baseUrl = baseUrl;
+        this.random = random;
+    }
+
+    long user() {
+        return between(1, settings.getUsers());
+    }
+
+    long item() {
+        return between(1, settings.getItems());
+    }
+
+    long availableItem() {
+        long itemId = item();
+        return dataset.isAvailable(itemId) ? itemId : itemId - 1;
+    }
+
+    long booking() {
+        return between(1, settings.getBookings());
+    }
+
+    long pastApprovedBooking() {
+        return 4 * between(1, settings.getBookings() / 4);
+    }
+
+    long itemRequest() {
+        return between(1, settings.getRequests());
+    }
+
+    String word() {
+        return Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size()));
+    }
+
+    String state() {
+        return STATES.get(random.nextInt(STATES.size()));
+    }
+
+    //most clients look at the first page
+    String page() {
+        int from = random.nextInt(4) == 0 ? 10 * random.nextInt(5) : 0;
+        return "from=" + from + "&size=10";
+    }
+
+    //an hour a year or more ahead, far from the seeded future bookings so overlaps stay rare
+    Map<String, Object> futureBooking(long itemId) {
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(400 + random.nextInt(365))
+                .plusMinutes(random.nextInt(24 * 60))
+                .truncatedTo(ChronoUnit.SECONDS);
+        return Map.of("itemId", itemId, "start", start.toString(), "end", start.plusHours(1).toString());
+    }
+
+    HttpRequest get(String path, Long userId) {
+        return builder(path, userId).GET().build();
+    }
+
+    HttpRequest post(String path, long userId, Object body) {
+        try {
+            return builder(path, userId)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (userId != null) builder.header(HEADER_SHARER_USER_ID, String.valueOf(userId));
+        return builder;
+    }
+
+    private long between(long from, long to) {
+        return from + (long) (random.nextDouble() * (to - from + 1));
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//service classes annotated with @Timed(SERVICE_TIMER) get a timer per method tagged with class, method and exception,
+//percentiles are set in application.properties together with the repository and http timers
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "shareit.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
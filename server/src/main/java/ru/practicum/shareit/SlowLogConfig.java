@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.util.SlowLog;
+import ru.practicum.shareit.util.SlowQueryListener;
+import ru.practicum.shareit.util.SlowRequestFilter;
+
+import java.time.Duration;
+
+@Configuration
+public class SlowLogConfig {
+
+    @Bean
+    public SlowLog slowLog(ObjectMapper objectMapper,
+                           @Value("${shareit.slow-log.max-per-second:20}") int maxPerSecond) {
+        return new SlowLog(objectMapper, maxPerSecond);
+    }
+
+    //picked up by the sleuth datasource-proxy configuration as a query and a method listener
+    @Bean
+    public SlowQueryListener slowQueryListener(SlowLog slowLog,
+                                               @Value("${shareit.slow-log.sql-threshold:100ms}") Duration threshold,
+                                               @Value("${shareit.slow-log.fetch-sample-rate:1}") double fetchSampleRate) {
+        return new SlowQueryListener(slowLog, threshold, fetchSampleRate);
+    }
+
+    //after the tracing filter, so the line carries the trace id, and before the concurrency limit, so waiting counts
+    @Bean
+    public FilterRegistrationBean<SlowRequestFilter> slowRequestFilter(
+            SlowLog slowLog,
+            @Value("${shareit.slow-log.request-threshold:500ms}") Duration threshold) {
+        FilterRegistrationBean<SlowRequestFilter> registration = new FilterRegistrationBean<>(
+                new SlowRequestFilter(slowLog, threshold));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import brave.sampler.CountingSampler;
+import brave.sampler.Sampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//the trace context arrives in the W3C traceparent header (spring.sleuth.propagation.type),
+//http, service and jdbc spans are only logged, there is no remote exporter
+@Slf4j
+@Configuration
+public class TracingConfig {
+
+    //sleuth creates a sampler only next to a zipkin reporter or span handler, without one nothing new is sampled
+    @Bean
+    public Sampler sampler(@Value("${spring.sleuth.sampler.probability}") float probability) {
+        return CountingSampler.create(probability);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.log.enabled", havingValue = "true")
+    public SpanReporter loggingSpanReporter() {
+        return span -> log.info("Спан {}: trace={} parent={} id={} {} мкс {}",
+                span.getName(),
+                span.getTraceId(),
+                span.getParentId(),
+                span.getSpanId(),
+                span.getEndTimestamp() - span.getStartTimestamp(),
+                span.getTags());
+    }
+}
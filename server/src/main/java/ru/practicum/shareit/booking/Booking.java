@@ -9,6 +9,7 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 import static javax.persistence.EnumType.STRING;
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.GenerationType.IDENTITY;
 
 @Entity
@@ -19,6 +20,9 @@ import static javax.persistence.GenerationType.IDENTITY;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "bookings")
+@NamedEntityGraph(name = "Booking.itemAndBooker", attributeNodes = {
+        @NamedAttributeNode("item"),
+        @NamedAttributeNode("booker")})
 public class Booking {
     @Id
     @GeneratedValue(strategy = IDENTITY)
@@ -27,12 +31,16 @@ public class Booking {
     private LocalDateTime start;
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
     @Enumerated(STRING)
     private Status status;
+    @Version
+    private long version;
 }
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.util.ETags;
 
 import java.util.List;
 
@@ -13,6 +17,7 @@ import java.util.List;
 @AllArgsConstructor
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
     private final BookingService bookingService;
     private final ItemService itemService;
 
@@ -31,24 +36,45 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public List<BookingAllDto> getBookingsByOwner(@RequestHeader(required = false, value = "X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(required = false) String state,
-                                                  @RequestParam(required = false) Integer from,
-                                                  @RequestParam(required = false) Integer size) {
-        return bookingService.getBookingsByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingAllDto>> getBookingsByOwner(@RequestHeader(required = false, value = "X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(required = false) String state,
+                                                                  @RequestParam(required = false) Integer from,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String after) {
+        if (after == null)
+            return ResponseEntity.ok(bookingService.getBookingsByOwner(userId, state, from, size));
+        return toSliceResponse(bookingService.getBookingsByOwnerAfter(userId, state, after, size));
     }
 
     @GetMapping()
-    public List<BookingAllDto> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                      @RequestParam(required = false) String state,
-                                      @RequestParam(required = false) Integer from,
-                                      @RequestParam(required = false) Integer size) {
-        return bookingService.getAll(userId, state, from, size);
+    public ResponseEntity<List<BookingAllDto>> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                                      @RequestParam(required = false) String state,
+                                                      @RequestParam(required = false) Integer from,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) String after) {
+        if (after == null)
+            return ResponseEntity.ok(bookingService.getAll(userId, state, from, size));
+        return toSliceResponse(bookingService.getAllAfter(userId, state, after, size));
     }
 
     @GetMapping("/{bookingId}")
     public BookingAllDto get(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                             @PathVariable Long bookingId) {
-        return bookingService.get(bookingId, userId);
+                             @PathVariable Long bookingId,
+                             WebRequest request) {
+        BookingAllDto booking = bookingService.get(bookingId, userId);
+        //item and booker names are embedded, their rows carry own versions
+        ETags etag = ETags.of(booking.getId(), booking.getVersion(),
+                booking.getItem().getId(), booking.getItem().getName(),
+                booking.getBooker().getId(), booking.getBooker().getName());
+        if (request.checkNotModified(etag.weak())) return null;
+        return booking;
+    }
+
+    private static ResponseEntity<List<BookingAllDto>> toSliceResponse(Slice<BookingAllDto> slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String next = BookingCursor.next(slice);
+        if (next != null)
+            response.header(HEADER_NEXT_CURSOR, next);
+        return response.body(slice.getContent());
     }
 }
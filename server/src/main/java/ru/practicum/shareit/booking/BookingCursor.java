@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.exception.IncorrectParameterException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+    public static final BookingCursor FIRST = new BookingCursor(BookingWindow.MAX_DATE, Long.MAX_VALUE);
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    public static BookingCursor decode(String after) {
+        if (after == null || after.isBlank()) return FIRST;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(after), UTF_8).split(",");
+            if (parts.length != 2) throw new IncorrectParameterException("Некорректный курсор: " + after);
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IncorrectParameterException("Некорректный курсор: " + after);
+        }
+    }
+
+    public static String next(Slice<BookingAllDto> slice) {
+        if (!slice.hasNext()) return null;
+        List<BookingAllDto> content = slice.getContent();
+        BookingAllDto last = content.get(content.size() - 1);
+        return new BookingCursor(last.getStart(), last.getId()).encode();
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((start + "," + id).getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+//an approved booking as the interval index keeps it, read without loading the booking as an entity
+@Value
+public class BookingInterval {
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+    }
+}
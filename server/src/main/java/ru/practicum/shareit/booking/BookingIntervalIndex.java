@@ -0,0 +1,183 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.time.LocalDateTime.now;
+import static ru.practicum.shareit.enums.Status.APPROVED;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final Object pendingLock = new Object();
+    private volatile Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> intervals = new ConcurrentHashMap<>();
+    //owner and booker ids to the items whose intervals came from their bookings
+    private volatile Map<Long, Set<Long>> userItems = new ConcurrentHashMap<>();
+    //approvals committed while a rebuild reads the database, replayed into the rebuilt map
+    private List<BookingInterval> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+        }
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> rebuilt = new ConcurrentHashMap<>();
+        Map<Long, Set<Long>> rebuiltUsers = new ConcurrentHashMap<>();
+        bookingRepository.findIntervals(APPROVED, now())
+                .forEach(interval -> add(rebuilt, rebuiltUsers, interval));
+        synchronized (pendingLock) {
+            pending.forEach(interval -> add(rebuilt, rebuiltUsers, interval));
+            pending = null;
+            intervals = rebuilt;
+            userItems = rebuiltUsers;
+        }
+        log.info("Индекс бронирований построен для {} вещей", rebuilt.size());
+    }
+
+    //published before the delete: the items of the user and the items it booked are taken from the index,
+    //after the cascade only they are re-read, intervals cannot be split back into bookings
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        Long userId = event.getUserId();
+        Set<Long> itemIds = Set.copyOf(userItems.getOrDefault(userId, Set.of()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload(userId, itemIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload(userId, itemIds);
+            }
+        });
+    }
+
+    //a new booking cannot start in the past, so ended intervals are never asked about
+    @Scheduled(initialDelayString = "${shareit.booking-index.prune-interval:3600000}",
+            fixedDelayString = "${shareit.booking-index.prune-interval:3600000}")
+    public void prune() {
+        LocalDateTime now = now();
+        intervals.keySet().forEach(itemId -> intervals.computeIfPresent(itemId, (id, itemIntervals) -> {
+            synchronized (itemIntervals) {
+                //merged intervals do not overlap, so ends grow with starts
+                while (!itemIntervals.isEmpty() && !itemIntervals.firstEntry().getValue().isAfter(now))
+                    itemIntervals.pollFirstEntry();
+                return itemIntervals.isEmpty() ? null : itemIntervals;
+            }
+        }));
+        synchronized (pendingLock) {
+            userItems.values().forEach(itemIds -> itemIds.removeIf(itemId -> !intervals.containsKey(itemId)));
+            userItems.values().removeIf(Set::isEmpty);
+        }
+    }
+
+    public void addAfterCommit(Booking booking) {
+        BookingInterval interval = BookingInterval.of(booking);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(interval);
+            }
+        });
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = intervals.get(itemId);
+        if (itemIntervals == null) return true;
+        synchronized (itemIntervals) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = itemIntervals.lowerEntry(end);
+            return before == null || !before.getValue().isAfter(start);
+        }
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    private synchronized void reload(Long userId, Set<Long> itemIds) {
+        userItems.remove(userId);
+        if (itemIds.isEmpty()) return;
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+        }
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> reloaded = new HashMap<>();
+        List<BookingInterval> read = bookingRepository.findItemIntervals(itemIds, APPROVED, now());
+        synchronized (pendingLock) {
+            read.forEach(interval -> add(reloaded, userItems, interval));
+            pending.stream()
+                    .filter(interval -> itemIds.contains(interval.getItemId()))
+                    .forEach(interval -> add(reloaded, userItems, interval));
+            pending = null;
+            itemIds.forEach(itemId -> {
+                NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = reloaded.get(itemId);
+                if (itemIntervals == null) intervals.remove(itemId);
+                else intervals.put(itemId, itemIntervals);
+            });
+        }
+        log.info("Индекс бронирований перечитан для {} вещей", itemIds.size());
+    }
+
+    private void add(BookingInterval interval) {
+        synchronized (pendingLock) {
+            if (pending != null) pending.add(interval);
+            add(intervals, userItems, interval);
+        }
+    }
+
+    //compute keeps the add atomic with prune dropping an emptied item
+    private static void add(Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> intervals,
+                            Map<Long, Set<Long>> userItems,
+                            BookingInterval interval) {
+        intervals.compute(interval.getItemId(), (id, itemIntervals) -> {
+            NavigableMap<LocalDateTime, LocalDateTime> merged = itemIntervals != null ? itemIntervals : new TreeMap<>();
+            synchronized (merged) {
+                merge(merged, interval.getStart(), interval.getEnd());
+            }
+            return merged;
+        });
+        userItems.computeIfAbsent(interval.getOwnerId(), id -> ConcurrentHashMap.newKeySet()).add(interval.getItemId());
+        userItems.computeIfAbsent(interval.getBookerId(), id -> ConcurrentHashMap.newKeySet()).add(interval.getItemId());
+    }
+
+    private static void merge(NavigableMap<LocalDateTime, LocalDateTime> itemIntervals,
+                              LocalDateTime start,
+                              LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+        Map.Entry<LocalDateTime, LocalDateTime> before = itemIntervals.floorEntry(start);
+        if (before != null && !before.getValue().isBefore(start)) {
+            mergedStart = before.getKey();
+            if (before.getValue().isAfter(mergedEnd)) mergedEnd = before.getValue();
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> next = itemIntervals.ceilingEntry(mergedStart);
+        while (next != null && !next.getKey().isAfter(mergedEnd)) {
+            if (next.getValue().isAfter(mergedEnd)) mergedEnd = next.getValue();
+            itemIntervals.remove(next.getKey());
+            next = itemIntervals.higherEntry(next.getKey());
+        }
+        itemIntervals.put(mergedStart, mergedEnd);
+    }
+}
@@ -3,17 +3,20 @@ package ru.practicum.shareit.booking;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.user.UserMapper;
 
+import static java.time.temporal.ChronoUnit.MICROS;
+
 @UtilityClass
 public class BookingMapper {
 
     public static Booking toBooking(BookingControllerDto bookingDto) {
         return Booking.builder()
-                .start(bookingDto.getStart())
-                .end(bookingDto.getEnd())
+                .start(bookingDto.getStart() != null ? bookingDto.getStart().truncatedTo(MICROS) : null)
+                .end(bookingDto.getEnd() != null ? bookingDto.getEnd().truncatedTo(MICROS) : null)
                 .build();
     }
 
@@ -25,6 +28,30 @@ public class BookingMapper {
                 .item(booking.getItem() != null ? ItemMapper.toItemShortDto(booking.getItem()) : null)
                 .booker(booking.getBooker() != null ? UserMapper.toUserShortDto(booking.getBooker()) : null)
                 .status(Status.valueOf(booking.getStatus().name()))
+                .version(booking.getVersion())
+                .build();
+    }
+
+    public static ItemBookings toItemBookings(ItemBookingsView view) {
+        return ItemBookings.builder()
+                .itemId(view.getItemId())
+                .lastBookingId(view.getLastBookingId())
+                .lastBookerId(view.getLastBookerId())
+                .nextBookingId(view.getNextBookingId())
+                .nextBookerId(view.getNextBookerId())
+                .refreshAt(view.getRefreshAt())
                 .build();
     }
+
+    public static BookingDto toLastBookingDto(ItemBookings itemBookings) {
+        return itemBookings != null && itemBookings.getLastBookingId() != null
+                ? new BookingDto(itemBookings.getLastBookingId(), itemBookings.getLastBookerId())
+                : null;
+    }
+
+    public static BookingDto toNextBookingDto(ItemBookings itemBookings) {
+        return itemBookings != null && itemBookings.getNextBookingId() != null
+                ? new BookingDto(itemBookings.getNextBookingId(), itemBookings.getNextBookerId())
+                : null;
+    }
 }
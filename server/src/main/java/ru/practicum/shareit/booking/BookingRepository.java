@@ -1,98 +1,147 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.enums.Status;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    //for owner
-    List<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
-                                                                                     LocalDateTime startDateTime,
-                                                                                     LocalDateTime endDateTime);
-
-    Page<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
-                                                                                     LocalDateTime startDateTime,
-                                                                                     LocalDateTime endDateTime,
-                                                                                     Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
-                                                                       LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
-                                                                       LocalDateTime localDateTime,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
-                                                                      LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
-                                                                      LocalDateTime localDateTime,
-                                                                      Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
-                                                                       Status bookingState);
-
-    Page<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
-                                                                       Status bookingState,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Long itemId,
-                                                                      Long userId);
-
-    Page<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner,
-                                                            Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner);
-
-    //for booker
-    List<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                                  LocalDateTime startDateTime,
-                                                                                  LocalDateTime endDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                                  LocalDateTime startDateTime,
-                                                                                  LocalDateTime endDateTime,
-                                                                                  Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
-                                                                        LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
-                                                                        LocalDateTime localDateTime,
-                                                                        Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
-                                                                     LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
-                                                                     LocalDateTime localDateTime,
-                                                                     Pageable pageable);
+    String BOOKING_ALL_DTO = "select new ru.practicum.shareit.booking.dto.BookingAllDto(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status, b.version) " +
+            "from Booking b join b.item i join b.booker u ";
+    String BOOKING_INTERVAL = "select new ru.practicum.shareit.booking.BookingInterval(" +
+            "i.id, i.owner.id, b.booker.id, b.start, b.end) " +
+            "from Booking b join b.item i ";
+
+    @EntityGraph("Booking.itemAndBooker")
+    Optional<Booking> findById(Long id);
+
+    //listings are read as BookingAllDto, without loading the bookings, items and users as entities
+    @Query(BOOKING_ALL_DTO +
+            "where u.id = :bookerId " +
+            "and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "order by b.start desc, b.id desc")
+    List<BookingAllDto> findBookerBookings(@Param("bookerId") Long bookerId,
+                                           @Param("statuses") Collection<Status> statuses,
+                                           @Param("startAfter") LocalDateTime startAfter,
+                                           @Param("startBefore") LocalDateTime startBefore,
+                                           @Param("endAfter") LocalDateTime endAfter,
+                                           @Param("endBefore") LocalDateTime endBefore,
+                                           Pageable pageable);
+
+    @Query(BOOKING_ALL_DTO +
+            "where i.owner.id = :ownerId " +
+            "and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "order by b.start desc, b.id desc")
+    List<BookingAllDto> findOwnerBookings(@Param("ownerId") Long ownerId,
+                                          @Param("statuses") Collection<Status> statuses,
+                                          @Param("startAfter") LocalDateTime startAfter,
+                                          @Param("startBefore") LocalDateTime startBefore,
+                                          @Param("endAfter") LocalDateTime endAfter,
+                                          @Param("endBefore") LocalDateTime endBefore,
+                                          Pageable pageable);
+
+    @Query(BOOKING_ALL_DTO +
+            "where i.id = ?1 and i.owner.id = ?2 " +
+            "order by b.start")
+    List<BookingAllDto> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Long itemId,
+                                                                            Long userId);
 
     List<Booking> findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(Long itemId,
                                                                   Status bookingState,
                                                                   LocalDateTime localDateTime);
 
-    List<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
-                                                                    Status bookingState);
-
-    Page<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
-                                                                    Status bookingState,
-                                                                    Pageable pageable);
+    @Query(BOOKING_INTERVAL +
+            "where b.status = ?1 and b.end > ?2")
+    List<BookingInterval> findIntervals(Status bookingState,
+                                        LocalDateTime localDateTime);
 
-    Page<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
-                                                         Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsOrderByStartDesc(User booker);
+    @Query(BOOKING_INTERVAL +
+            "where i.id in ?1 and b.status = ?2 and b.end > ?3")
+    List<BookingInterval> findItemIntervals(Collection<Long> itemIds,
+                                            Status bookingState,
+                                            LocalDateTime localDateTime);
 
+    @EntityGraph("Booking.itemAndBooker")
     @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 and b.status = 'APPROVED' order by b.start DESC")
     List<Booking> findApprovedBookings(Long itemId, Long userId);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status in :statuses " +
+            "and b.start < :end and b.end > :start " +
+            "and b.id <> :bookingId")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("statuses") Collection<Status> statuses,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("bookingId") Long bookingId);
+
+    //keyset pagination
+    @Query(BOOKING_ALL_DTO +
+            "where u.id = :bookerId " +
+            "and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingAllDto> findBookerBookingsAfter(@Param("bookerId") Long bookerId,
+                                           @Param("statuses") Collection<Status> statuses,
+                                           @Param("startAfter") LocalDateTime startAfter,
+                                           @Param("startBefore") LocalDateTime startBefore,
+                                           @Param("endAfter") LocalDateTime endAfter,
+                                           @Param("endBefore") LocalDateTime endBefore,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @Query(BOOKING_ALL_DTO +
+            "where i.owner.id = :ownerId " +
+            "and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingAllDto> findOwnerBookingsAfter(@Param("ownerId") Long ownerId,
+                                          @Param("statuses") Collection<Status> statuses,
+                                          @Param("startAfter") LocalDateTime startAfter,
+                                          @Param("startBefore") LocalDateTime startBefore,
+                                          @Param("endAfter") LocalDateTime endAfter,
+                                          @Param("endBefore") LocalDateTime endBefore,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    //last and next bookings of items, refreshAt is the start of the earliest future booking
+    @Query(value = "select i.id as itemId, " +
+            "l.id as lastBookingId, l.booker_id as lastBookerId, " +
+            "n.id as nextBookingId, n.booker_id as nextBookerId, " +
+            "(select min(f.start_date) from bookings f where f.item_id = i.id and f.start_date > :now) as refreshAt " +
+            "from items i " +
+            "left join (select b.item_id, b.id, b.booker_id, " +
+            "row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.start_date < :now) l on l.item_id = i.id and l.rn = 1 " +
+            "left join (select b.item_id, b.id, b.booker_id, " +
+            "row_number() over (partition by b.item_id order by b.end_date, b.id) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.start_date > :now and b.status <> 'REJECTED') n on n.item_id = i.id and n.rn = 1 " +
+            "where i.id in (:itemIds)", nativeQuery = true)
+    List<ItemBookingsView> findItemBookings(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
 }
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -16,11 +20,21 @@ public interface BookingService {
 
     List<BookingAllDto> getBookingsByOwner(Long userId, String state, Integer from, Integer size);
 
+    Slice<BookingAllDto> getBookingsByOwnerAfter(Long userId, String state, String after, Integer size);
+
     List<BookingAllDto> getBookingsByItem(Long itemId, Long userId);
 
+    Map<Long, ItemBookings> getItemBookings(Collection<Long> itemIds);
+
+    int refreshItemBookings();
+
+    boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end);
+
     List<BookingAllDto> getAll(Long id, String state);
 
     List<BookingAllDto> getAll(Long bookerId, String state, Integer from, Integer size);
 
+    Slice<BookingAllDto> getAllAfter(Long bookerId, String state, String after, Integer size);
+
     BookingAllDto get(Long id, Long userId);
 }
@@ -1,17 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.MetricsConfig;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ParameterException;
 import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
@@ -19,22 +26,29 @@ import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
 import static java.time.LocalDateTime.now;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
-import static ru.practicum.shareit.enums.State.*;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.enums.Status.*;
 import static ru.practicum.shareit.util.Pagination.makePageRequest;
+import static ru.practicum.shareit.util.Pagination.makeSliceRequest;
 
 @Service
 @AllArgsConstructor
 @Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookingServiceImpl implements BookingService {
     private final UserService userService;
     private final BookingRepository bookingRepository;
+    private final ItemBookingsRepository itemBookingsRepository;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,12 +59,16 @@ public class BookingServiceImpl implements BookingService {
             throw new IncorrectParameterException("Вещь с id = " + itemDto.getId() + " уже арендована");
         valid(bookingControllerDto);
         User booker = UserMapper.toUser(userService.get(id));
-        Item item = ItemMapper.toItem(itemDto);
+        Item item = lockItem(itemDto.getId());
         Booking booking = BookingMapper.toBooking(bookingControllerDto);
+        checkOverlapping(item.getId(), booking, List.of(WAITING, APPROVED));
         booking.setStatus(WAITING);
         booking.setBooker(booker);
         booking.setItem(item);
-        return BookingMapper.mapToBookingAllFieldsDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        refreshItemBookings(item.getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+        return BookingMapper.mapToBookingAllFieldsDto(savedBooking);
     }
 
     @Override
@@ -63,207 +81,127 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(userId)
                 || !booking.getStatus().equals(WAITING))
             throw new IncorrectParameterException("Бронирование не может быть обновлено");
+        if (approved) {
+            lockItem(booking.getItem().getId());
+            checkOverlapping(booking.getItem().getId(), booking, List.of(APPROVED));
+        }
         booking.setStatus(approved ? APPROVED : REJECTED);
         Booking savedBooking = bookingRepository.save(booking);
+        refreshItemBookings(booking.getItem().getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem().getId()));
+        if (approved)
+            bookingIntervalIndex.addAfterCommit(booking);
         return BookingMapper.mapToBookingAllFieldsDto(savedBooking);
     }
 
     @Override
     public List<BookingAllDto> getBookingsByOwner(Long userId, String state) {
-        Stream<Booking> stream = null;
-        User user = UserMapper.toUser(userService.get(userId));
-        if (state == null || ALL.name().equals(state))
-            stream = bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(user)
-                    .stream();
-        if (PAST.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, now())
-                    .stream();
-        if (CURRENT.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, now(), now())
-                    .stream();
-        if (FUTURE.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now())
-                    .stream();
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
-            stream = bookingRepository
-                    .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                    .stream();
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return getBookingsByOwner(userId, state, null, null);
     }
 
     @Override
     public List<BookingAllDto> getBookingsByOwner(Long userId, String state, Integer from, Integer size) {
-        Stream<Booking> stream = null;
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("start").descending());
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
         User user = UserMapper.toUser(userService.get(userId));
-        if (state == null || state.equals(ALL.name())) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsOrderByStartDesc(user)
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsOrderByStartDesc(user, pageRequest)
-                        .stream();
-        }
-        if (PAST.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (CURRENT.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (FUTURE.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now(), pageRequest)
-                        .stream();
-        }
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state), pageRequest)
-                        .stream();
-        }
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        BookingWindow window = BookingWindow.of(state, now());
+        return bookingRepository.findOwnerBookings(user.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                pageRequest != null ? pageRequest : Pageable.unpaged());
+    }
+
+    @Override
+    public Slice<BookingAllDto> getBookingsByOwnerAfter(Long userId, String state, String after, Integer size) {
+        PageRequest pageRequest = makeSliceRequest(size);
+        BookingCursor cursor = BookingCursor.decode(after);
+        BookingWindow window = BookingWindow.of(state, now());
+        User user = UserMapper.toUser(userService.get(userId));
+        return bookingRepository.findOwnerBookingsAfter(user.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                cursor.getStart(),
+                cursor.getId(),
+                pageRequest);
     }
 
     @Override
     public List<BookingAllDto> getBookingsByItem(Long itemId, Long userId) {
-        return bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(
-                        itemId, userId)
+        return bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(itemId, userId);
+    }
+
+    @Override
+    public Map<Long, ItemBookings> getItemBookings(Collection<Long> itemIds) {
+        LocalDateTime now = now();
+        Map<Long, ItemBookings> itemBookings = itemBookingsRepository.findAllById(itemIds)
+                .stream()
+                .collect(toMap(ItemBookings::getItemId, identity()));
+        List<Long> staleIds = itemBookings.values()
+                .stream()
+                .filter(row -> row.getRefreshAt() != null && !row.getRefreshAt().isAfter(now))
+                .map(ItemBookings::getItemId)
+                .collect(toList());
+        if (!staleIds.isEmpty())
+            findItemBookings(staleIds, now).forEach(row -> itemBookings.put(row.getItemId(), row));
+        return itemBookings;
+    }
+
+    @Override
+    @Transactional
+    public int refreshItemBookings() {
+        LocalDateTime now = now();
+        List<Long> staleIds = itemBookingsRepository.findAllByRefreshAtLessThanEqual(now)
                 .stream()
-                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .map(ItemBookings::getItemId)
                 .collect(toList());
+        if (staleIds.isEmpty()) return 0;
+        return itemBookingsRepository.saveAll(findItemBookings(staleIds, now)).size();
+    }
+
+    @Override
+    public boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingIntervalIndex.isFree(itemId, start, end);
     }
 
     @Override
     public List<BookingAllDto> getAll(Long bookerId, String state) {
-        Stream<Booking> stream = null;
-        User user = UserMapper.toUser(userService.get(bookerId));
-        if (state == null || ALL.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByBookerIsOrderByStartDesc(user)
-                    .stream();
-        if (PAST.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                    .stream();
-        if (CURRENT.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                    .stream();
-        if (FUTURE.name().equals(state))
-            stream = bookingRepository
-                    .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now())
-                    .stream();
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
-            stream = bookingRepository
-                    .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                    .stream();
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return getAll(bookerId, state, null, null);
     }
 
     @Override
     public List<BookingAllDto> getAll(Long bookerId, String state, Integer from, Integer size) {
-        Stream<Booking> stream = null;
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("start").descending());
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
         User user = UserMapper.toUser(userService.get(bookerId));
-        if (state == null || ALL.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByBookerIsOrderByStartDesc(user)
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByBookerIsOrderByStartDesc(user, pageRequest)
-                        .stream();
-        }
-        if (PAST.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (CURRENT.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (FUTURE.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            if (pageRequest == null)
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                        .stream();
-            else
-                stream = bookingRepository
-                        .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state), pageRequest)
-                        .stream();
-        }
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        BookingWindow window = BookingWindow.of(state, now());
+        return bookingRepository.findBookerBookings(user.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                pageRequest != null ? pageRequest : Pageable.unpaged());
+    }
+
+    @Override
+    public Slice<BookingAllDto> getAllAfter(Long bookerId, String state, String after, Integer size) {
+        PageRequest pageRequest = makeSliceRequest(size);
+        BookingCursor cursor = BookingCursor.decode(after);
+        BookingWindow window = BookingWindow.of(state, now());
+        User user = UserMapper.toUser(userService.get(bookerId));
+        return bookingRepository.findBookerBookingsAfter(user.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                cursor.getStart(),
+                cursor.getId(),
+                pageRequest);
     }
 
     @Override
@@ -277,6 +215,28 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.mapToBookingAllFieldsDto(booking);
     }
 
+    private Item lockItem(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId).orElseThrow(
+                () -> new ObjectNotFoundException("Вещь с id = " + itemId + " не найдена"));
+    }
+
+    private void checkOverlapping(Long itemId, Booking booking, List<Status> statuses) {
+        if (bookingRepository.existsOverlapping(itemId, statuses, booking.getStart(), booking.getEnd(),
+                booking.getId() != null ? booking.getId() : 0L))
+            throw new ParameterException("Вещь уже забронирована на период с " + booking.getStart() + " по " + booking.getEnd());
+    }
+
+    private void refreshItemBookings(Long itemId) {
+        itemBookingsRepository.saveAll(findItemBookings(List.of(itemId), now()));
+    }
+
+    private List<ItemBookings> findItemBookings(Collection<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findItemBookings(itemIds, now)
+                .stream()
+                .map(BookingMapper::toItemBookings)
+                .collect(toList());
+    }
+
     private void valid(BookingControllerDto bookingSavingDto) {
         if (bookingSavingDto.getStart() == null)
             throw new IncorrectParameterException("Не задана дата начала бронирования");
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exception.IncorrectParameterException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static ru.practicum.shareit.enums.State.*;
+
+@Getter
+@AllArgsConstructor
+public class BookingWindow {
+    public static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final List<Status> ALL_STATUSES = List.of(Status.values());
+
+    private final List<Status> statuses;
+    private final LocalDateTime startAfter;
+    private final LocalDateTime startBefore;
+    private final LocalDateTime endAfter;
+    private final LocalDateTime endBefore;
+
+    public static BookingWindow of(String state, LocalDateTime now) {
+        if (state == null || ALL.name().equals(state))
+            return new BookingWindow(ALL_STATUSES, MIN_DATE, MAX_DATE, MIN_DATE, MAX_DATE);
+        if (PAST.name().equals(state))
+            return new BookingWindow(ALL_STATUSES, MIN_DATE, MAX_DATE, MIN_DATE, now);
+        if (CURRENT.name().equals(state))
+            return new BookingWindow(ALL_STATUSES, MIN_DATE, now, now, MAX_DATE);
+        if (FUTURE.name().equals(state))
+            return new BookingWindow(ALL_STATUSES, now, MAX_DATE, MIN_DATE, MAX_DATE);
+        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+            return new BookingWindow(List.of(Status.valueOf(state)), MIN_DATE, MAX_DATE, MIN_DATE, MAX_DATE);
+        throw new IncorrectParameterException("Unknown state: " + state);
+    }
+}
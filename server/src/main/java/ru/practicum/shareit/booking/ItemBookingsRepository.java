@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingsRepository extends JpaRepository<ItemBookings, Long> {
+
+    List<ItemBookings> findAllByRefreshAtLessThanEqual(LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-bookings.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingsSweeper {
+    private final BookingService bookingService;
+
+    @Scheduled(initialDelayString = "${shareit.item-bookings.sweeper.interval:60000}",
+            fixedDelayString = "${shareit.item-bookings.sweeper.interval:60000}")
+    public void sweep() {
+        int refreshed = bookingService.refreshItemBookings();
+        if (refreshed > 0)
+            log.info("Обновлены последние/следующие бронирования для {} вещей", refreshed);
+    }
+}
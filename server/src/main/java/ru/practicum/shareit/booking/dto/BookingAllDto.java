@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.dto.ItemShortDto;
@@ -21,4 +23,20 @@ public class BookingAllDto {
     private ItemShortDto item;
     private UserShortDto booker;
     private Status status;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    //constructor expression of the listing queries
+    public BookingAllDto(Long id,
+                         LocalDateTime start,
+                         LocalDateTime end,
+                         Long itemId,
+                         String itemName,
+                         Long bookerId,
+                         String bookerName,
+                         Status status,
+                         long version) {
+        this(id, start, end, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId, bookerName), status, version);
+    }
 }
@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.User;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.GenerationType.IDENTITY;
 
 @Entity
@@ -22,10 +23,12 @@ public class Comment {
     private Long id;
     @Column(nullable = false)
     private String text;
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
     @Column(nullable = false)
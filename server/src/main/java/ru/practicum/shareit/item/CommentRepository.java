@@ -1,16 +1,25 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
 
 import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String COMMENT_DTO = "select new ru.practicum.shareit.item.dto.CommentDto(" +
+            "comment.id, comment.text, comment.item.id, author.name, comment.created) " +
+            "from Comment comment join comment.author author ";
 
-    List<Comment> findByItem(Item item, Sort sort);
+    @Query(COMMENT_DTO +
+            "where comment.item.id in :itemIds " +
+            "order by comment.created desc")
+    List<CommentDto> findCommentDtosByItemIds(@Param("itemIds") Collection<Long> itemIds);
 
-    List<Comment> findByItemIn(Collection<Item> items, Sort sort);
+    @Query(COMMENT_DTO)
+    List<CommentDto> findAllCommentDtos();
 }
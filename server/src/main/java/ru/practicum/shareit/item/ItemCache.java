@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.UserRenamedEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//assembled items per (item, viewer role); the owner view also expires when its next booking starts
+@Component
+public class ItemCache {
+    private final Cache<Key, Entry> cache;
+    private final Clock clock;
+    //generations are stamps from one sequence: an item is at its last eviction or the last eviction of everything
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Long, Long> generations = new ConcurrentHashMap<>();
+    private volatile long allGeneration;
+
+    @Autowired
+    public ItemCache(@Value("${shareit.items.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.items.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this(maximumSize, expireAfterWrite, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ItemCache(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EntryExpiry(expireAfterWrite.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    //read before loading and pass to put, so a load that raced with an invalidation of the item is not cached
+    public long generation(Long itemId) {
+        Long generation = generations.get(itemId);
+        long all = allGeneration;
+        return generation != null ? Math.max(generation, all) : all;
+    }
+
+    @Nullable
+    public ItemAllDto get(Long itemId, Long userId) {
+        Entry shared = cache.getIfPresent(new Key(itemId, false));
+        if (shared == null) return null;
+        if (!shared.getItem().getOwnerId().equals(userId)) return shared.getItem();
+        Entry owner = cache.getIfPresent(new Key(itemId, true));
+        return owner != null ? owner.getItem() : null;
+    }
+
+    public void put(long generation,
+                    ItemAllDto shared,
+                    @Nullable ItemAllDto ownerView,
+                    @Nullable LocalDateTime refreshAt) {
+        if (generation != generation(shared.getId())) return;
+        cache.put(new Key(shared.getId(), false), new Entry(shared, null));
+        if (ownerView != null) {
+            long nanos = refreshAt != null
+                    ? Math.max(0, Duration.between(LocalDateTime.now(clock), refreshAt).toNanos())
+                    : Long.MAX_VALUE;
+            cache.put(new Key(ownerView.getId(), true), new Entry(ownerView, nanos));
+        }
+        if (generation != generation(shared.getId())) {
+            cache.invalidate(new Key(shared.getId(), false));
+            cache.invalidate(new Key(shared.getId(), true));
+        }
+    }
+
+    //evicted right away for reads inside the same transaction and again after it completes
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(() -> evict(event.getItemId()));
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(this::evictAll);
+    }
+
+    //comments show the author name, renames are rare enough to drop everything
+    @EventListener
+    public void onUserRenamed(UserRenamedEvent event) {
+        invalidate(this::evictAll);
+    }
+
+    private void invalidate(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    private void evict(Long itemId) {
+        generations.merge(itemId, sequence.incrementAndGet(), Math::max);
+        cache.invalidate(new Key(itemId, false));
+        cache.invalidate(new Key(itemId, true));
+    }
+
+    //cleared first: until the new stamp is set an item may read an older generation, and put checks again after writing
+    private void evictAll() {
+        generations.clear();
+        allGeneration = sequence.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Data
+    private static class Key {
+        private final Long itemId;
+        private final boolean ownerView;
+    }
+
+    @Data
+    private static class Entry {
+        private final ItemAllDto item;
+        private final Long expiresInNanos;
+    }
+
+    private static class EntryExpiry implements Expiry<Key, Entry> {
+        private final long expireAfterWriteNanos;
+
+        private EntryExpiry(long expireAfterWriteNanos) {
+            this.expireAfterWriteNanos = expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.getExpiresInNanos() != null
+                    ? Math.min(entry.getExpiresInNanos(), expireAfterWriteNanos)
+                    : expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
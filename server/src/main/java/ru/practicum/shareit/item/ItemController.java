@@ -1,15 +1,21 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.ETags;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
 @RestController
 @RequestMapping("/items")
 @AllArgsConstructor
@@ -35,22 +41,34 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemAllDto get(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                          @PathVariable Long itemId) {
-        return itemService.get(itemId, userId);
+                          @PathVariable Long itemId,
+                          WebRequest request) {
+        ItemAllDto item = itemService.get(itemId, userId);
+        if (request.checkNotModified(addTo(new ETags(), item).weak())) return null;
+        return item;
     }
 
     @GetMapping()
     public List<ItemAllDto> getAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                         @RequestParam(required = false) Integer from,
-                                        @RequestParam(required = false) Integer size) {
-        return itemService.getAll(userId, from, size);
+                                        @RequestParam(required = false) Integer size,
+                                        WebRequest request) {
+        List<ItemAllDto> items = itemService.getAll(userId, from, size);
+        ETags etag = new ETags();
+        items.forEach(item -> addTo(etag, item));
+        if (request.checkNotModified(etag.weak())) return null;
+        return items;
     }
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                 @RequestParam String text,
                                 @RequestParam(required = false) Integer from,
-                                @RequestParam(required = false) Integer size) {
+                                @RequestParam(required = false) Integer size,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime end) {
+        if (start != null || end != null)
+            return itemService.getAvailableByText(text.toLowerCase(), start, end, from, size);
         return itemService.getByText(text.toLowerCase(), userId, from, size);
     }
 
@@ -61,4 +79,13 @@ public class ItemController {
                                     Long userId) {
         return itemService.createComment(commentDto, itemId, userId);
     }
+
+    //bookings and comments don't bump the item version, so their ids are part of the tag
+    private static ETags addTo(ETags etag, ItemAllDto item) {
+        etag.add(item.getId(), item.getVersion(),
+                item.getLastBooking() != null ? item.getLastBooking().getId() : null,
+                item.getNextBooking() != null ? item.getNextBooking().getId() : null);
+        item.getComments().forEach(comment -> etag.add(comment.getId(), comment.getAuthorName()));
+        return etag;
+    }
 }
@@ -20,6 +20,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .version(item.getVersion())
                 .build();
     }
 
@@ -36,6 +37,7 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .version(itemDto.getVersion())
                 .build();
     }
 
@@ -45,6 +47,7 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .version(itemDto.getVersion())
                 .build();
     }
 
@@ -62,6 +65,25 @@ public class ItemMapper {
                 .lastBooking(lastBooking != null ? new BookingDto(lastBooking.getId(), lastBooking.getBooker().getId()) : null)
                 .nextBooking(nextBooking != null ? new BookingDto(nextBooking.getId(), nextBooking.getBooker().getId()) : null)
                 .comments(comments != null ? comments : List.of())
+                .version(item.getVersion())
+                .build();
+    }
+
+    public static ItemAllDto toItemAllDto(Item item,
+                                          BookingDto lastBooking,
+                                          BookingDto nextBooking,
+                                          List<CommentDto> comments) {
+        return ItemAllDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .comments(comments != null ? comments : List.of())
+                .version(item.getVersion())
                 .build();
     }
 }
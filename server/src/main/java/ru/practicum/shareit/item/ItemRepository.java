@@ -2,36 +2,40 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static javax.persistence.LockModeType.PESSIMISTIC_WRITE;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
 
     List<Item> findAllByOwner_IdIs(Long ownerId, Pageable pageable);
 
-    @Query("select item from Item item " +
-            "where item.available = TRUE " +
-            "and (upper(item.name) " +
-            "like upper(concat('%', ?1, '%')) " +
-            "or upper(item.description) " +
-            "like upper(concat('%', ?1, '%')))")
-    List<Item> getAllText(String text);
-
-    @Query("select item from Item item " +
-            "where item.available = TRUE " +
-            "and (upper(item.name) " +
-            "like upper(concat('%', ?1, '%')) " +
-            "or upper(item.description) " +
-            "like upper(concat('%', ?1, '%')))")
-    List<Item> getAllText(String text, Pageable pageable);
-
     List<Item> findAllByOwner_IdIs(Long ownerId);
 
-    List<Item> findAllByRequestIn(List<ItemRequest> requests);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(item.id, item.name, item.description, item.available, item.request.id, item.version) " +
+            "from Item item " +
+            "where item.request.id in :requestIds")
+    List<ItemDto> findItemDtosByRequestIds(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(item.id, item.name, item.description, item.available, request.id) " +
+            "from Item item left join item.request request " +
+            "where item.available = TRUE")
+    List<ItemDto> findAvailableItemDtos();
+
+    @Query("select item.id from Item item left join item.request request " +
+            "where item.owner.id = ?1 or request.requester.id = ?1")
+    List<Long> findIdsByOwnerOrRequester(Long userId);
 
-    List<Item> findAllByRequest_IdIs(Long requestId);
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("select item from Item item where item.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
 }
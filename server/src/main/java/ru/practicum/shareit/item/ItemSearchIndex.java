@@ -0,0 +1,300 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toList;
+
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int minPrefixLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    private NavigableMap<String, Postings> postings = new TreeMap<>();
+    private Map<Long, ItemDto> items = new HashMap<>();
+    private Map<Long, Set<String>> itemTokens = new HashMap<>();
+    //changes made while the items are read from the database, replayed into the rebuilt index
+    private List<Runnable> pending;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory.enabled:false}") boolean enabled,
+                           @Value("${shareit.search.in-memory.min-prefix-length:3}") int minPrefixLength) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.minPrefixLength = minPrefixLength;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //changes with anything that can alter search results, also when the in-memory index is off
+    public long generation() {
+        return generation.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) return;
+        startPending();
+        List<ItemDto> available = itemRepository.findAvailableItemDtos();
+        install(available);
+        log.info("Поисковый индекс построен для {} вещей", available.size());
+    }
+
+    //compares the indexed content, so an edit that missed the index is found as well as a missing item
+    @Scheduled(initialDelayString = "${shareit.search.in-memory.check-interval:300000}",
+            fixedDelayString = "${shareit.search.in-memory.check-interval:300000}")
+    public synchronized void check() {
+        if (!enabled) return;
+        startPending();
+        List<ItemDto> available = itemRepository.findAvailableItemDtos();
+        if (isConsistent(available)) {
+            install(null);
+            return;
+        }
+        log.warn("Поисковый индекс расходится с базой данных, индекс будет перестроен");
+        install(available);
+    }
+
+    //published before the delete, the items that go with the user through the cascade can still be read
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        List<Long> itemIds = enabled ? itemRepository.findIdsByOwnerOrRequester(event.getUserId()) : List.of();
+        afterCommit(() -> itemIds.forEach(this::remove));
+    }
+
+    public void putAfterCommit(ItemDto itemDto) {
+        afterCommit(() -> put(itemDto));
+    }
+
+    void put(ItemDto itemDto) {
+        write(() -> {
+            removeTokens(itemDto.getId());
+            if (Boolean.TRUE.equals(itemDto.getAvailable())) add(itemDto);
+        });
+    }
+
+    void remove(Long itemId) {
+        write(() -> removeTokens(itemId));
+    }
+
+    private void write(Runnable change) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pending != null) pending.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isConsistent(List<ItemDto> available) {
+        lock.readLock().lock();
+        try {
+            return available.size() == items.size()
+                    && available.stream().allMatch(itemDto -> itemDto.equals(items.get(itemDto.getId())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void startPending() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //null keeps the current index and only stops recording
+    private void install(List<ItemDto> available) {
+        lock.writeLock().lock();
+        try {
+            if (available != null) {
+                postings = new TreeMap<>();
+                items = new HashMap<>();
+                itemTokens = new HashMap<>();
+                available.forEach(this::add);
+                pending.forEach(Runnable::run);
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //items match every query token, ordered by id. Candidates come from the rarest token, merged from its
+    //sorted postings, and are checked against the other tokens until the page is filled
+    public List<ItemDto> search(String text, long offset, int limit) {
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> tokens = queryTokens.stream()
+                    .distinct()
+                    .map(this::matches)
+                    .sorted(comparingLong(ItemSearchIndex::size))
+                    .collect(toList());
+            if (tokens.get(0).isEmpty()) return List.of();
+            PriorityQueue<Cursor> candidates = new PriorityQueue<>(comparingLong(Cursor::current));
+            tokens.get(0).forEach(tokenPostings -> candidates.add(new Cursor(tokenPostings)));
+            List<List<Cursor>> others = tokens.subList(1, tokens.size())
+                    .stream()
+                    .map(matched -> matched.stream().map(Cursor::new).collect(toList()))
+                    .collect(toList());
+            List<ItemDto> page = new ArrayList<>();
+            long skipped = 0;
+            long previous = Long.MIN_VALUE;
+            while (!candidates.isEmpty() && page.size() < limit) {
+                Cursor cursor = candidates.poll();
+                long id = cursor.current();
+                if (cursor.next()) candidates.add(cursor);
+                if (id == previous) continue;
+                previous = id;
+                if (!others.stream().allMatch(cursors -> contains(cursors, id))) continue;
+                if (skipped < offset) skipped++;
+                else page.add(items.get(id));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ItemDto itemDto) {
+        Set<String> tokens = new HashSet<>(tokenize(itemDto.getName() + " " + itemDto.getDescription()));
+        tokens.forEach(token -> postings.computeIfAbsent(token, t -> new Postings()).add(itemDto.getId()));
+        items.put(itemDto.getId(), itemDto);
+        itemTokens.put(itemDto.getId(), tokens);
+    }
+
+    private void removeTokens(Long itemId) {
+        Set<String> tokens = itemTokens.remove(itemId);
+        items.remove(itemId);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Postings tokenPostings = postings.get(token);
+            if (tokenPostings != null && tokenPostings.remove(itemId) && tokenPostings.size == 0)
+                postings.remove(token);
+        }
+    }
+
+    //a short token would expand to a large part of the vocabulary, so it matches whole words only
+    private List<Postings> matches(String token) {
+        if (token.length() < minPrefixLength) {
+            Postings exact = postings.get(token);
+            return exact != null ? List.of(exact) : List.of();
+        }
+        return new ArrayList<>(postings.subMap(token, true, token + Character.MAX_VALUE, false).values());
+    }
+
+    private static long size(List<Postings> matched) {
+        long size = 0;
+        for (Postings tokenPostings : matched) size += tokenPostings.size;
+        return size;
+    }
+
+    //ids are checked in ascending order, so the cursors only move forward
+    private static boolean contains(List<Cursor> cursors, long id) {
+        boolean found = false;
+        for (Cursor cursor : cursors) {
+            if (cursor.seek(id)) found = true;
+        }
+        return found;
+    }
+
+    private static List<String> tokenize(String text) {
+        return Arrays.stream(SEPARATOR.split(text.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .collect(toList());
+    }
+
+    private void afterCommit(Runnable action) {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generation.incrementAndGet();
+            }
+        });
+    }
+
+    private static final class Cursor {
+        private final Postings postings;
+        private int position;
+
+        private Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        private long current() {
+            return postings.ids[position];
+        }
+
+        private boolean next() {
+            return ++position < postings.size;
+        }
+
+        private boolean seek(long id) {
+            if (position >= postings.size) return false;
+            int found = Arrays.binarySearch(postings.ids, position, postings.size, id);
+            position = found >= 0 ? found : -found - 1;
+            return found >= 0;
+        }
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) return;
+            position = -position - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) return false;
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
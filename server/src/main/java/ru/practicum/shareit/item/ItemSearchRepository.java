@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+
+    List<ItemDto> search(String text, Pageable pageable);
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final String FULL_TEXT_QUERY = "select i.id, i.name, i.description, i.available, i.request_id, i.version " +
+            "from items i " +
+            "where i.available = TRUE " +
+            "and (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "or i.name ilike concat('%', :text, '%') " +
+            "or i.description ilike concat('%', :text, '%')) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('simple', :text)) desc, i.id";
+    private static final String LIKE_QUERY = "select new ru.practicum.shareit.item.dto.ItemDto(" +
+            "item.id, item.name, item.description, item.available, item.request.id, item.version) " +
+            "from Item item " +
+            "where item.available = TRUE " +
+            "and (upper(item.name) like upper(concat('%', :text, '%')) " +
+            "or upper(item.description) like upper(concat('%', :text, '%'))) " +
+            "order by item.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final boolean fullText;
+
+    public ItemSearchRepositoryImpl(DataSource dataSource) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.fullText = "PostgreSQL".equals(product);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ItemDto> search(String text, Pageable pageable) {
+        Query query = fullText
+                ? entityManager.createNativeQuery(FULL_TEXT_QUERY)
+                : entityManager.createQuery(LIKE_QUERY, ItemDto.class);
+        query.setParameter("text", text);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        if (!fullText) return query.getResultList();
+        return ((List<Object[]>) query.getResultList())
+                .stream()
+                .map(ItemSearchRepositoryImpl::toItemDto)
+                .collect(toList());
+    }
+
+    private static ItemDto toItemDto(Object[] row) {
+        return new ItemDto(((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (Boolean) row[3],
+                row[4] != null ? ((Number) row[4]).longValue() : null,
+                ((Number) row[5]).longValue());
+    }
+}
@@ -3,9 +3,10 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -20,11 +21,13 @@ public interface ItemService {
 
     List<ItemDto> getByText(String text, Long userId, Integer from, Integer size);
 
+    List<ItemDto> getAvailableByText(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
     CommentDto createComment(CommentDto comment, Long itemId, Long userId);
 
     List<CommentDto> getAllComments();
 
-    List<ItemDto> getItemsByRequests(List<ItemRequest> requests);
+    List<ItemDto> getItemsByRequests(Collection<Long> requestIds);
 
     List<ItemDto> getItemsByRequestId(Long requestId);
 }
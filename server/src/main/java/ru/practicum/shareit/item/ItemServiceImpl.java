@@ -1,63 +1,99 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.MetricsConfig;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemBookings;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.util.SingleFlight;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 import static ru.practicum.shareit.enums.State.PAST;
 import static ru.practicum.shareit.util.Pagination.makePageRequest;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ItemServiceImpl implements ItemService {
+    private static final int SEARCH_BATCH_SIZE = 50;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final CommentRepository commentRepository;
     private final BookingService bookingService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCache itemCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<ItemKey, ItemViews> itemFlights;
+    private final SingleFlight<SearchKey, List<ItemDto>> searchFlights;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository,
                            UserService userService,
                            CommentRepository commentRepository,
-                           BookingService bookingService) {
+                           BookingService bookingService,
+                           ItemSearchIndex itemSearchIndex,
+                           ItemCache itemCache,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
         this.itemRepository = itemRepository;
         this.userService = userService;
         this.commentRepository = commentRepository;
         this.bookingService = bookingService;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemCache = itemCache;
+        this.eventPublisher = eventPublisher;
+        this.itemFlights = new SingleFlight<>("items", meterRegistry);
+        this.searchFlights = new SingleFlight<>("item-search", meterRegistry);
     }
 
     @Override
     public ItemAllDto get(Long id, Long userId) {
+        ItemAllDto cached = itemCache.get(id, userId);
+        if (cached != null) return cached;
+        long generation = itemCache.generation(id);
+        //the generation is part of the key, so a call after an invalidation starts its own load
+        ItemViews views = itemFlights.execute(new ItemKey(id, generation), () -> load(id, generation));
+        return views.getShared().getOwnerId().equals(userId) ? views.getOwnerView() : views.getShared();
+    }
+
+    //both views are loaded, concurrent callers may be the owner or not
+    private ItemViews load(Long id, long generation) {
         Item item = itemRepository.findById(id).orElseThrow(
                 () -> new ObjectNotFoundException("Вещь с id " + id + " не найдена"));
-        List<Comment> comments = commentRepository.findByItem(item, Sort.by(DESC, "created"));
-        List<BookingAllDto> bookings = bookingService.getBookingsByItem(item.getId(), userId);
-        return ItemMapper.toItemAllFieldsDto(item,
-                getLastItem(bookings),
-                getNextItem(bookings),
-                comments.stream().map(CommentMapper::toCommentDto).collect(toList()));
+        List<CommentDto> comments = commentRepository.findCommentDtosByItemIds(List.of(id));
+        ItemAllDto shared = ItemMapper.toItemAllDto(item, null, null, comments);
+        ItemBookings itemBookings = bookingService.getItemBookings(List.of(id)).get(id);
+        ItemAllDto ownerView = ItemMapper.toItemAllDto(item,
+                BookingMapper.toLastBookingDto(itemBookings),
+                BookingMapper.toNextBookingDto(itemBookings),
+                comments);
+        itemCache.put(generation, shared, ownerView, itemBookings != null ? itemBookings.getRefreshAt() : null);
+        return new ItemViews(shared, ownerView);
     }
 
     @Override
@@ -70,7 +106,10 @@ public class ItemServiceImpl implements ItemService {
         if (itemRequestDto != null)
             item.setRequest(ItemRequestMapper.mapToItemRequest(
                     itemRequestDto, userService.get(itemRequestDto.getRequesterId())));
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto savedItem = ItemMapper.toItemDto(itemRepository.save(item));
+        itemSearchIndex.putAfterCommit(savedItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(savedItem.getId()));
+        return savedItem;
     }
 
     @Override
@@ -96,7 +135,10 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(patchAvailable)) {
             item.setAvailable(patchAvailable);
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto savedItem = ItemMapper.toItemDto(itemRepository.save(item));
+        itemSearchIndex.putAfterCommit(savedItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(id));
+        return savedItem;
     }
 
     @Override
@@ -110,11 +152,17 @@ public class ItemServiceImpl implements ItemService {
             } else {
                 allItems = itemRepository.findAllByOwner_IdIs(id, pageRequest);
             }
-            List<Comment> comments = commentRepository.findByItemIn(allItems, Sort.by(DESC, "created"));
-            Map<Long, List<BookingAllDto>> bookings = bookingService.getBookingsByOwner(id, null).stream()
-                    .collect(groupingBy((BookingAllDto bookingExtendedDto) -> bookingExtendedDto.getItem().getId()));
+            if (allItems.isEmpty()) return Collections.emptyList();
+            List<Long> itemIds = allItems.stream().map(Item::getId).collect(toList());
+            Map<Long, ItemBookings> itemBookings = bookingService.getItemBookings(itemIds);
+            Map<Long, List<CommentDto>> comments = commentRepository.findCommentDtosByItemIds(itemIds)
+                    .stream()
+                    .collect(groupingBy(CommentDto::getItemId));
             return allItems.stream()
-                    .map(item -> getItemAllFieldsDto(comments, bookings, item))
+                    .map(item -> ItemMapper.toItemAllDto(item,
+                            BookingMapper.toLastBookingDto(itemBookings.get(item.getId())),
+                            BookingMapper.toNextBookingDto(itemBookings.get(item.getId())),
+                            comments.get(item.getId())))
                     .collect(toList());
         } else {
             throw new ObjectNotFoundException("Пользователь с id" + id + "не найден");
@@ -123,14 +171,33 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> getByText(String text, Long userId, Integer from, Integer size) {
-        List<Item> items;
         if (text.isBlank()) return Collections.emptyList();
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
-        if (pageRequest == null)
-            items = itemRepository.getAllText(text);
-        else
-            items = itemRepository.getAllText(text, pageRequest);
-        return items.stream().map(ItemMapper::toItemDto).collect(toList());
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
+        return searchItems(text, pageRequest != null ? pageRequest : Pageable.unpaged());
+    }
+
+    @Override
+    public List<ItemDto> getAvailableByText(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size) {
+        if (start == null || end == null || !start.isBefore(end))
+            throw new IncorrectParameterException("Некорректно задан период поиска");
+        if (text.isBlank()) return Collections.emptyList();
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
+        long skip = pageRequest != null ? pageRequest.getOffset() : 0;
+        int limit = pageRequest != null ? pageRequest.getPageSize() : Integer.MAX_VALUE;
+        int batchSize = Math.max(SEARCH_BATCH_SIZE, pageRequest != null ? limit : 0);
+        //matches are read in batches until the page is full, not all of them for every page
+        List<ItemDto> available = new ArrayList<>();
+        for (int batch = 0; available.size() < limit; batch++) {
+            List<ItemDto> matches = searchItems(text, PageRequest.of(batch, batchSize));
+            for (ItemDto item : matches) {
+                if (available.size() == limit) break;
+                if (!bookingService.isAvailable(item.getId(), start, end)) continue;
+                if (skip > 0) skip--;
+                else available.add(item);
+            }
+            if (matches.size() < batchSize) break;
+        }
+        return available;
     }
 
     @Override
@@ -150,40 +217,34 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
         Comment save = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return CommentMapper.toCommentDto(save);
     }
 
     @Override
     public List<CommentDto> getAllComments() {
-        return commentRepository.findAll()
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
+        return commentRepository.findAllCommentDtos();
     }
 
     @Override
     public List<ItemDto> getItemsByRequestId(Long requestId) {
-        return itemRepository.findAllByRequest_IdIs(requestId)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(toList());
+        return itemRepository.findItemDtosByRequestIds(List.of(requestId));
     }
 
     @Override
-    public List<ItemDto> getItemsByRequests(List<ItemRequest> requests) {
-        return itemRepository.findAllByRequestIn(requests)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(toList());
+    public List<ItemDto> getItemsByRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) return Collections.emptyList();
+        return itemRepository.findItemDtosByRequestIds(requestIds);
     }
 
-    private ItemAllDto getItemAllFieldsDto(List<Comment> comments,
-                                           Map<Long, List<BookingAllDto>> bookings,
-                                           Item item) {
-        return ItemMapper.toItemAllFieldsDto(item,
-                getLastItem(bookings.get(item.getId())),
-                getNextItem(bookings.get(item.getId())),
-                comments.stream().map(CommentMapper::toCommentDto).collect(toList()));
+    private List<ItemDto> searchItems(String text, Pageable pageable) {
+        if (itemSearchIndex.isEnabled())
+            return itemSearchIndex.search(text,
+                    pageable.isPaged() ? pageable.getOffset() : 0,
+                    pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        long generation = itemSearchIndex.generation();
+        return searchFlights.execute(new SearchKey(text, pageable, generation),
+                () -> itemRepository.search(text, pageable));
     }
 
     private void valid(ItemDto itemDto) {
@@ -198,19 +259,22 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private BookingAllDto getNextItem(List<BookingAllDto> bookings) {
-        return bookings != null
-                ? bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()) && !Objects.equals(booking.getStatus().toString(), "REJECTED"))
-                .min(Comparator.comparing(BookingAllDto::getEnd)).orElse(null)
-                : null;
+    @Data
+    private static class ItemKey {
+        private final Long itemId;
+        private final long generation;
+    }
+
+    @Data
+    private static class SearchKey {
+        private final String text;
+        private final Pageable pageable;
+        private final long generation;
     }
 
-    private BookingAllDto getLastItem(List<BookingAllDto> bookings) {
-        return bookings != null
-                ? bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(BookingAllDto::getEnd)).orElse(null)
-                : null;
+    @Data
+    private static class ItemViews {
+        private final ItemAllDto shared;
+        private final ItemAllDto ownerView;
     }
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
@@ -20,4 +22,19 @@ public class ItemAllDto {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    public ItemAllDto(Long id,
+                      String name,
+                      String description,
+                      Boolean available,
+                      Long ownerId,
+                      Long requestId,
+                      BookingDto lastBooking,
+                      BookingDto nextBooking,
+                      List<CommentDto> comments) {
+        this(id, name, description, available, ownerId, requestId, lastBooking, nextBooking, comments, 0);
+    }
 }
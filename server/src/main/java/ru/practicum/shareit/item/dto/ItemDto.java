@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -15,4 +17,15 @@ public class ItemDto {
     private String description;
     private Boolean available;
     private Long requestId;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    public ItemDto(Long id,
+                   String name,
+                   String description,
+                   Boolean available,
+                   Long requestId) {
+        this(id, name, description, available, requestId, 0);
+    }
 }
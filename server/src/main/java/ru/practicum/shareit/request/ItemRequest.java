@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.User;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.GenerationType.IDENTITY;
 
 @Entity
@@ -22,9 +23,12 @@ public class ItemRequest {
     private Long id;
     @Column(nullable = false)
     private String description;
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "requester_id", nullable = false)
     private User requester;
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
+    @Version
+    private long version;
 }
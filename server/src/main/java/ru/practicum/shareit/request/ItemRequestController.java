@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.ETags;
 
 import java.util.List;
 
@@ -32,7 +34,17 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequest(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                         @PathVariable Long requestId) {
-        return itemRequestService.getItemRequestById(requestId, userId);
+                                         @PathVariable Long requestId,
+                                         WebRequest request) {
+        ItemRequestDto itemRequest = itemRequestService.getItemRequestById(requestId, userId);
+        if (itemRequest != null && request.checkNotModified(etag(itemRequest))) return null;
+        return itemRequest;
+    }
+
+    private static String etag(ItemRequestDto itemRequest) {
+        ETags etag = ETags.of(itemRequest.getId(), itemRequest.getVersion());
+        if (itemRequest.getItems() != null)
+            itemRequest.getItems().forEach(item -> etag.add(item.getId(), item.getVersion()));
+        return etag.weak();
     }
 }
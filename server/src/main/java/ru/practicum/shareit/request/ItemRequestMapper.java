@@ -17,6 +17,7 @@ public class ItemRequestMapper {
                 .description(itemRequestDto.getDescription())
                 .created(itemRequestDto.getCreated())
                 .requester(UserMapper.toUser(userDto))
+                .version(itemRequestDto.getVersion())
                 .build();
     }
 
@@ -32,6 +33,7 @@ public class ItemRequestMapper {
                 .description(itemRequest.getDescription())
                 .requesterId(itemRequest.getRequester().getId())
                 .created(itemRequest.getCreated())
+                .version(itemRequest.getVersion())
                 .items(List.of())
                 .build();
     }
@@ -42,6 +44,7 @@ public class ItemRequestMapper {
                 .description(itemRequest.getDescription())
                 .requesterId(itemRequest.getRequester().getId())
                 .created(itemRequest.getCreated())
+                .version(itemRequest.getVersion())
                 .items(items != null ? items : List.of())
                 .build();
     }
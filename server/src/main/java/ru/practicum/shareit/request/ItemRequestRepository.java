@@ -1,19 +1,26 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String ITEM_REQUEST_DTO = "select new ru.practicum.shareit.request.dto.ItemRequestDto(" +
+            "request.id, request.description, request.requester.id, request.created, request.version) " +
+            "from ItemRequest request ";
 
-    Page<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    @Query(ITEM_REQUEST_DTO +
+            "where request.requester.id <> ?1 " +
+            "order by request.created desc")
+    List<ItemRequestDto> findItemRequestDtosByRequesterIdNot(Long userId, Pageable pageable);
 
-    List<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId);
-
-    List<ItemRequest> findItemRequestByRequesterOrderByCreatedDesc(User user);
+    @Query(ITEM_REQUEST_DTO +
+            "where request.requester.id = ?1 " +
+            "order by request.created desc")
+    List<ItemRequestDto> findItemRequestDtosByRequesterId(Long userId);
 }
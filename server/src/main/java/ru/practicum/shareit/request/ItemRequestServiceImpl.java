@@ -1,9 +1,13 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.MetricsConfig;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.ItemService;
@@ -13,7 +17,6 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
 
-import javax.transaction.Transactional;
 import java.util.List;
 import java.util.Map;
 
@@ -23,7 +26,8 @@ import static java.util.stream.Collectors.toList;
 import static ru.practicum.shareit.util.Pagination.makePageRequest;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
@@ -38,44 +42,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllItemRequests(Integer from, Integer size, Long userId) {
-        List<ItemRequest> requests;
         if (from == null) {
             from = 0;
         } else if (size == null) {
             size = 10;
         }
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("created").descending());
-        if (pageRequest == null) {
-            requests = itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(userId);
-        } else {
-            requests = itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(userId, pageRequest)
-                    .stream()
-                    .collect(toList());
-        }
-        List<ItemDto> items = itemService.getItemsByRequests(requests);
-        return requests
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
+        List<ItemRequestDto> requests = itemRequestRepository.findItemRequestDtosByRequesterIdNot(userId,
+                pageRequest != null ? pageRequest : Pageable.unpaged());
+        List<ItemDto> items = itemService.getItemsByRequests(requests
                 .stream()
-                .map(itemRequest -> ItemRequestMapper.mapToItemRequestDto(itemRequest, items))
-                .collect(toList());
+                .map(ItemRequestDto::getId)
+                .collect(toList()));
+        requests.forEach(request -> request.setItems(items));
+        return requests;
     }
 
     @Override
     public List<ItemRequestDto> getAllItemRequests(Long userId) {
         User user = UserMapper.toUser(userService.get(userId));
-        List<ItemRequest> itemRequests = itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(user);
-        List<ItemDto> items = itemService.getItemsByRequests(itemRequests);
-        Map<Long, List<ItemDto>> itemsByRequest = items
+        List<ItemRequestDto> requests = itemRequestRepository.findItemRequestDtosByRequesterId(user.getId());
+        Map<Long, List<ItemDto>> itemsByRequest = itemService.getItemsByRequests(requests
+                        .stream()
+                        .map(ItemRequestDto::getId)
+                        .collect(toList()))
                 .stream()
                 .collect(groupingBy(ItemDto::getRequestId, toList()));
-        return itemRequests.stream()
-                .map(itemRequest -> ItemRequestMapper.mapToItemRequestDto(itemRequest, itemsByRequest.get(itemRequest.getId())))
-                .collect(toList());
+        requests.forEach(request -> request.setItems(itemsByRequest.getOrDefault(request.getId(), List.of())));
+        return requests;
     }
 
     @Override
+    @Transactional
     public ItemRequestDto save(ItemRequestDto itemRequestDto, Long requesterId) {
         valid(itemRequestDto);
-        User user = UserMapper.toUser(userService.get(requesterId));
+        User user = userService.getReference(requesterId);
         ItemRequest itemRequest = ItemRequestMapper.mapToItemRequest(itemRequestDto);
         itemRequest.setRequester(user);
         itemRequest.setCreated(now());
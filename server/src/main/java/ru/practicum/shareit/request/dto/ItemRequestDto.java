@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -19,4 +21,24 @@ public class ItemRequestDto {
     private Long requesterId;
     private LocalDateTime created;
     private List<ItemDto> items;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    public ItemRequestDto(Long id,
+                          String description,
+                          Long requesterId,
+                          LocalDateTime created,
+                          List<ItemDto> items) {
+        this(id, description, requesterId, created, items, 0);
+    }
+
+    //constructor expression of the listing queries, items are attached afterwards
+    public ItemRequestDto(Long id,
+                          String description,
+                          Long requesterId,
+                          LocalDateTime created,
+                          long version) {
+        this(id, description, requesterId, created, List.of(), version);
+    }
 }
@@ -19,4 +19,6 @@ public class User {
     private Long id;
     private String name;
     private String email;
+    @Version
+    private long version;
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+    private final Cache<Long, UserDto> cache;
+
+    public UserCache(@Value("${shareit.users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.users.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public UserDto get(Long id, Function<Long, UserDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    //evicted again after commit, so a concurrent read cannot bring back the old row
+    public void evict(Long id) {
+        cache.invalidate(id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate(id);
+            }
+        });
+    }
+}
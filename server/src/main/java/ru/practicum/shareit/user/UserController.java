@@ -2,7 +2,9 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.ETags;
 
 import java.util.List;
 
@@ -24,8 +26,11 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto get(@PathVariable Long userId) {
-        return userService.get(userId);
+    public UserDto get(@PathVariable Long userId,
+                       WebRequest request) {
+        UserDto user = userService.get(userId);
+        if (request.checkNotModified(ETags.of(user.getId(), user.getVersion()).weak())) return null;
+        return user;
     }
 
     @DeleteMapping("/{userId}")
@@ -34,7 +39,11 @@ public class UserController {
     }
 
     @GetMapping()
-    public List<UserDto> getAll() {
-        return userService.getAll();
+    public List<UserDto> getAll(WebRequest request) {
+        List<UserDto> users = userService.getAll();
+        ETags etag = new ETags();
+        users.forEach(user -> etag.add(user.getId(), user.getVersion()));
+        if (request.checkNotModified(etag.weak())) return null;
+        return users;
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+@Value
+public class UserDeletedEvent {
+    Long userId;
+}
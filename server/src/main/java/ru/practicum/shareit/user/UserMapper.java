@@ -11,7 +11,8 @@ public class UserMapper {
         return UserDto.builder()
                 .id(user.getId())
                 .name(user.getName())
-                .email(user.getEmail()).build();
+                .email(user.getEmail())
+                .version(user.getVersion()).build();
     }
 
     public UserShortDto toUserShortDto(User user) {
@@ -24,6 +25,7 @@ public class UserMapper {
         return User.builder()
                 .id(userDto.getId())
                 .name(userDto.getName())
-                .email(userDto.getEmail()).build();
+                .email(userDto.getEmail())
+                .version(userDto.getVersion()).build();
     }
 }
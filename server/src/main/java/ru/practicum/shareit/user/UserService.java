@@ -12,6 +12,8 @@ public interface UserService {
 
     UserDto get(Long id);
 
+    User getReference(Long id);
+
     void delete(Long id);
 
     List<UserDto> getAll();
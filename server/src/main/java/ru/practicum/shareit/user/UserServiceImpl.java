@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.MetricsConfig;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ParameterException;
@@ -16,12 +19,19 @@ import static java.util.stream.Collectors.toList;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserCache userCache,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -36,12 +46,15 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id).orElseThrow(() -> {
             throw new ObjectNotFoundException("Пользователь с id = " + id + " не найден.");
         });
-        if (userDto.getName() != null) {
+        //author names are copied into cached items and their etags
+        if (userDto.getName() != null && !userDto.getName().equals(user.getName())) {
             user.setName(userDto.getName());
+            eventPublisher.publishEvent(new UserRenamedEvent(id));
         }
         if (userDto.getEmail() != null) {
             user.setEmail(userDto.getEmail());
         }
+        userCache.evict(id);
         try {
             return UserMapper.toUserDto(userRepository.save(user));
         } catch (DataIntegrityViolationException ex) {
@@ -57,10 +70,18 @@ public class UserServiceImpl implements UserService {
         if (id == null) {
             throw new IncorrectParameterException("Id пользователя не может быть null");
         }
-        User user = userRepository.findById(id).orElseThrow(() -> {
-            throw new ObjectNotFoundException("Пользователь с id = " + id + " не найден");
+        return userCache.get(id, userId -> {
+            User user = userRepository.findById(userId).orElseThrow(() -> {
+                throw new ObjectNotFoundException("Пользователь с id = " + userId + " не найден");
+            });
+            return UserMapper.toUserDto(user);
         });
-        return UserMapper.toUserDto(user);
+    }
+
+    @Override
+    public User getReference(Long id) {
+        get(id);
+        return userRepository.getReferenceById(id);
     }
 
     @Override
@@ -69,6 +90,9 @@ public class UserServiceImpl implements UserService {
         if (id == null) {
             throw new IncorrectParameterException("Id не может быть пустым!");
         }
+        userCache.evict(id);
+        //listeners still see the rows removed together with the user
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
         userRepository.deleteById(id);
     }
 
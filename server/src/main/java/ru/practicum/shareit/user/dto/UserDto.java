@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -13,4 +15,13 @@ public class UserDto {
     private Long id;
     private String name;
     private String email;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    public UserDto(Long id,
+                   String name,
+                   String email) {
+        this(id, name, email, 0);
+    }
 }
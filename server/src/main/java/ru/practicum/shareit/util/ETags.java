@@ -0,0 +1,33 @@
+package ru.practicum.shareit.util;
+
+import java.nio.charset.StandardCharsets;
+
+//weak validator built from row versions and ids instead of the serialized body, FNV-1a 64
+public class ETags {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final byte SEPARATOR = 0x1f;
+
+    private long hash = OFFSET_BASIS;
+
+    public static ETags of(Object... parts) {
+        return new ETags().add(parts);
+    }
+
+    public ETags add(Object... parts) {
+        for (Object part : parts) {
+            for (byte b : String.valueOf(part).getBytes(StandardCharsets.UTF_8)) mix(b);
+            mix(SEPARATOR);
+        }
+        return this;
+    }
+
+    public String weak() {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private void mix(byte b) {
+        hash ^= b & 0xff;
+        hash *= PRIME;
+    }
+}
@@ -7,10 +7,17 @@ import ru.practicum.shareit.exception.IncorrectParameterException;
 import static org.springframework.data.domain.PageRequest.of;
 
 public class Pagination {
+    private static final int DEFAULT_SIZE = 10;
 
     public static PageRequest makePageRequest(Integer from, Integer size, Sort sort) {
         if (size == null || from == null) return null;
         if (size <= 0 || from < 0) throw new IncorrectParameterException("size <= 0 || from < 0");
         return of(from / size, size, sort);
     }
+
+    public static PageRequest makeSliceRequest(Integer size) {
+        if (size == null) return of(0, DEFAULT_SIZE);
+        if (size <= 0) throw new IncorrectParameterException("size <= 0");
+        return of(0, size);
+    }
 }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+//one JSON line per slow statement or request on the shareit.slow-log logger, at most maxPerSecond lines a second;
+//lines over the cap are dropped and their number is added to the next written line
+@Slf4j(topic = "shareit.slow-log")
+public class SlowLog {
+    static final String TOTALS_ATTRIBUTE = SlowLog.class.getName() + ".totals";
+
+    private final ObjectMapper objectMapper;
+    private final int maxPerSecond;
+    private final AtomicLong second = new AtomicLong();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public SlowLog(ObjectMapper objectMapper, int maxPerSecond) {
+        this.objectMapper = objectMapper;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    void write(Map<String, Object> entry) {
+        if (!log.isWarnEnabled()) return;
+        if (!acquire()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long dropped = suppressed.getAndSet(0);
+        if (dropped > 0) entry.put("suppressed", dropped);
+        String traceId = MDC.get("traceId");
+        if (traceId != null) entry.put("traceId", traceId);
+        try {
+            log.warn(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось записать строку медленного лога", e);
+        }
+    }
+
+    private boolean acquire() {
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = second.get();
+        if (now != current && second.compareAndSet(current, now)) written.set(0);
+        return written.incrementAndGet() <= maxPerSecond;
+    }
+
+    //controller method of the request being handled on this thread, e.g. UserController.get
+    @Nullable
+    static String currentHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? handler(attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, SCOPE_REQUEST))
+                : null;
+    }
+
+    @Nullable
+    static String handler(@Nullable Object handler) {
+        if (!(handler instanceof HandlerMethod)) return null;
+        HandlerMethod method = (HandlerMethod) handler;
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+
+    @Nullable
+    static RequestTotals currentTotals() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? (RequestTotals) attributes.getAttribute(TOTALS_ATTRIBUTE, SCOPE_REQUEST) : null;
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    //statements of one request, a request is handled on a single thread
+    @Getter
+    static class RequestTotals {
+        private int statements;
+        private long nanos;
+
+        void add(long statementNanos) {
+            statements++;
+            nanos += statementNanos;
+        }
+    }
+}
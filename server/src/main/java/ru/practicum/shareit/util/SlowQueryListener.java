@@ -0,0 +1,143 @@
+package ru.practicum.shareit.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.lang.Nullable;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+//listens on the datasource-proxy that sleuth puts around the pool (spring.sleuth.jdbc, fetch included by default).
+//A sampled select is finished when its result set is closed, so its duration includes fetching and its row count is known;
+//the others are finished at execution without rows, and ResultSet.next() skips the lookup while no sampled one is open
+public class SlowQueryListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final int MAX_STATEMENT_LENGTH = 2000;
+
+    private final SlowLog slowLog;
+    private final long thresholdNanos;
+    private final double fetchSampleRate;
+    //weak keys, a result set that is never closed through the proxy does not stay here
+    private final Cache<Object, OpenResultSet> openResultSets = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    public SlowQueryListener(SlowLog slowLog, Duration threshold, double fetchSampleRate) {
+        this.slowLog = slowLog;
+        this.thresholdNanos = threshold.toNanos();
+        this.fetchSampleRate = fetchSampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        long executeNanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        Object result = target(execInfo.getResult());
+        if (result instanceof ResultSet && ThreadLocalRandom.current().nextDouble() < fetchSampleRate) {
+            openResultSets.put(result, new OpenResultSet(execInfo, queries, executeNanos, SlowLog.currentHandler(),
+                    SlowLog.currentTotals(), System.nanoTime()));
+            return;
+        }
+        finish(execInfo, queries, executeNanos, executeNanos, rows(result), SlowLog.currentHandler(), SlowLog.currentTotals());
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext context) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext context) {
+        if (!(context.getTarget() instanceof ResultSet) || openResultSets.estimatedSize() == 0) return;
+        String method = context.getMethod().getName();
+        if (method.equals("next") && Boolean.TRUE.equals(context.getResult())) {
+            OpenResultSet open = openResultSets.getIfPresent(context.getTarget());
+            if (open != null) open.rows++;
+        } else if (method.equals("close")) {
+            OpenResultSet open = openResultSets.asMap().remove(context.getTarget());
+            if (open != null) open.finish();
+        }
+    }
+
+    private void finish(ExecutionInfo execInfo,
+                        List<QueryInfo> queries,
+                        long executeNanos,
+                        long nanos,
+                        @Nullable Long rows,
+                        @Nullable String handler,
+                        @Nullable SlowLog.RequestTotals totals) {
+        if (totals != null) totals.add(nanos);
+        if (nanos < thresholdNanos) return;
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("type", "sql");
+        entry.put("durationMs", SlowLog.millis(nanos));
+        entry.put("executeMs", SlowLog.millis(executeNanos));
+        entry.put("rows", rows);
+        entry.put("statement", statement(queries));
+        entry.put("parameters", parameters(queries));
+        if (execInfo.isBatch()) entry.put("batch", execInfo.getBatchSize());
+        entry.put("handler", handler);
+        entry.put("success", execInfo.isSuccess());
+        slowLog.write(entry);
+    }
+
+    private static String statement(List<QueryInfo> queries) {
+        String statement = queries.isEmpty() ? "" : queries.get(0).getQuery().replaceAll("\\s+", " ").trim();
+        return statement.length() > MAX_STATEMENT_LENGTH ? statement.substring(0, MAX_STATEMENT_LENGTH) + "..." : statement;
+    }
+
+    //bind parameter types without values, e.g. [Long, String, Null]
+    private static List<String> parameters(List<QueryInfo> queries) {
+        if (queries.isEmpty() || queries.get(0).getParametersList().isEmpty()) return List.of();
+        List<ParameterSetOperation> operations = queries.get(0).getParametersList().get(0);
+        return operations.stream()
+                .map(operation -> operation.getMethod().getName().replaceFirst("^set", ""))
+                .collect(toList());
+    }
+
+    @Nullable
+    private static Long rows(@Nullable Object result) {
+        if (result instanceof Integer) return ((Integer) result).longValue();
+        if (result instanceof Long) return (Long) result;
+        if (result instanceof int[]) return (long) IntStream.of((int[]) result).sum();
+        return null;
+    }
+
+    @Nullable
+    private static Object target(@Nullable Object result) {
+        return result instanceof ProxyJdbcObject ? ((ProxyJdbcObject) result).getTarget() : result;
+    }
+
+    @RequiredArgsConstructor
+    private class OpenResultSet {
+        private final ExecutionInfo execInfo;
+        private final List<QueryInfo> queries;
+        private final long executeNanos;
+        private final String handler;
+        private final SlowLog.RequestTotals totals;
+        private final long executedAt;
+        private long rows;
+
+        void finish() {
+            long nanos = executeNanos + System.nanoTime() - executedAt;
+            SlowQueryListener.this.finish(execInfo, queries, executeNanos, nanos, rows, handler, totals);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//requests slower than the threshold with their controller method and the statements they ran
+public class SlowRequestFilter extends OncePerRequestFilter {
+    private final SlowLog slowLog;
+    private final long thresholdNanos;
+
+    public SlowRequestFilter(SlowLog slowLog, Duration threshold) {
+        this.slowLog = slowLog;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SlowLog.RequestTotals totals = new SlowLog.RequestTotals();
+        request.setAttribute(SlowLog.TOTALS_ATTRIBUTE, totals);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (nanos >= thresholdNanos) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("type", "http");
+                entry.put("durationMs", SlowLog.millis(nanos));
+                entry.put("method", request.getMethod());
+                entry.put("path", request.getRequestURI());
+                entry.put("route", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+                entry.put("status", response.getStatus());
+                entry.put("handler", SlowLog.handler(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)));
+                entry.put("statements", totals.getStatements());
+                entry.put("sqlMs", SlowLog.millis(totals.getNanos()));
+                slowLog.write(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+create INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+create INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC);
+
+create INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+create INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+create INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+create INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+
+create INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
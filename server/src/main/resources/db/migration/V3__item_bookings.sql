@@ -0,0 +1,14 @@
+create TABLE IF NOT EXISTS item_bookings (
+    item_id         BIGINT    NOT NULL REFERENCES items (id) ON delete CASCADE,
+    last_booking_id BIGINT REFERENCES bookings (id) ON delete SET NULL,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT REFERENCES bookings (id) ON delete SET NULL,
+    next_booker_id  BIGINT,
+    refresh_at      TIMESTAMP,
+    CONSTRAINT pk_item_bookings PRIMARY KEY (item_id)
+);
+
+create INDEX IF NOT EXISTS idx_item_bookings_refresh_at ON item_bookings (refresh_at);
+
+insert into item_bookings (item_id, refresh_at)
+select distinct item_id, CURRENT_TIMESTAMP from bookings;
@@ -0,0 +1,7 @@
+alter table users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+alter table requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+alter table items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+alter table bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,227 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingWindow;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.support.SqlStatements;
+import ru.practicum.shareit.support.SqlStatementsConfig;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static ru.practicum.shareit.support.SqlBudget.exactly;
+
+//statement budgets of the read paths, a lazy association touched by a mapper shows up as an extra select per row
+@DataJpaTest
+@Import(SqlStatementsConfig.class)
+class FetchPlanTest {
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SqlStatements sqlStatements;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    private User owner;
+    private User booker;
+    private Long bookingId;
+
+    @BeforeEach
+    void initialize() {
+        owner = entityManager.persist(User.builder().name("Lora").email("lora@mail.ru").build());
+        booker = entityManager.persist(User.builder().name("Mike").email("mike@mail.ru").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            User requester = entityManager.persist(User.builder().name("requester" + i).email("requester" + i + "@mail.ru").build());
+            ItemRequest request = entityManager.persist(ItemRequest.builder()
+                    .description("need pen " + i)
+                    .requester(requester)
+                    .created(now.minusDays(i))
+                    .build());
+            Item item = entityManager.persist(Item.builder()
+                    .name("pen" + i)
+                    .description("blue pen")
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            bookingId = entityManager.persist(Booking.builder()
+                    .start(now.minusDays(i + 2))
+                    .end(now.minusDays(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build()).getId();
+            entityManager.persist(Comment.builder()
+                    .text("nice")
+                    .item(item)
+                    .author(booker)
+                    .created(now)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        sqlStatements.clear();
+    }
+
+    @Test
+    void bookingsByBookerTest() {
+        BookingWindow window = BookingWindow.of(null, LocalDateTime.now());
+        List<BookingAllDto> bookings = bookingRepository.findBookerBookings(booker.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                Pageable.unpaged());
+
+        assertThat(bookings, hasSize(ITEMS));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Mike"));
+        assertStatements(1);
+        assertNoEntities();
+    }
+
+    @Test
+    void bookingsByOwnerPageTest() {
+        BookingWindow window = BookingWindow.of(Status.APPROVED.name(), LocalDateTime.now());
+        List<BookingAllDto> bookings = bookingRepository.findOwnerBookings(owner.getId(),
+                window.getStatuses(),
+                window.getStartAfter(),
+                window.getStartBefore(),
+                window.getEndAfter(),
+                window.getEndBefore(),
+                PageRequest.of(0, 2));
+
+        assertThat(bookings, hasSize(2));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("pen0"));
+        //no count query for a list
+        assertStatements(1);
+        assertNoEntities();
+    }
+
+    @Test
+    void bookingsByOwnerAfterTest() {
+        BookingWindow window = BookingWindow.of(null, LocalDateTime.now());
+        List<BookingAllDto> bookings = bookingRepository.findOwnerBookingsAfter(owner.getId(),
+                        window.getStatuses(),
+                        window.getStartAfter(),
+                        window.getStartBefore(),
+                        window.getEndAfter(),
+                        window.getEndBefore(),
+                        BookingCursor.FIRST.getStart(),
+                        BookingCursor.FIRST.getId(),
+                        PageRequest.of(0, 10))
+                .getContent();
+
+        assertThat(bookings, hasSize(ITEMS));
+        assertStatements(1);
+        assertNoEntities();
+    }
+
+    @Test
+    void bookingByIdTest() {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        BookingAllDto bookingDto = BookingMapper.mapToBookingAllFieldsDto(booking);
+
+        assertThat(booking.getItem().getOwner().getId(), equalTo(owner.getId()));
+        assertThat(bookingDto.getBooker().getName(), equalTo("Mike"));
+        assertStatements(1);
+    }
+
+    @Test
+    void itemsOfOwnerWithCommentsTest() {
+        List<Item> items = itemRepository.findAllByOwner_IdIs(owner.getId());
+        List<CommentDto> comments = commentRepository.findCommentDtosByItemIds(items
+                .stream()
+                .map(Item::getId)
+                .collect(toList()));
+        List<ItemAllDto> itemDtos = items.stream()
+                .map(item -> ItemMapper.toItemAllDto(item, null, null, comments))
+                .collect(toList());
+
+        assertThat(itemDtos, hasSize(ITEMS));
+        assertThat(itemDtos.get(0).getOwnerId(), equalTo(owner.getId()));
+        assertThat(comments.get(0).getAuthorName(), equalTo("Mike"));
+        assertStatements(2);
+    }
+
+    @Test
+    void allCommentsTest() {
+        List<CommentDto> comments = commentRepository.findAllCommentDtos();
+
+        assertThat(comments, hasSize(ITEMS));
+        assertStatements(1);
+        assertNoEntities();
+    }
+
+    @Test
+    void itemRequestsOfOthersTest() {
+        List<ItemRequestDto> requests = itemRequestRepository
+                .findItemRequestDtosByRequesterIdNot(owner.getId(), PageRequest.of(0, 10));
+        List<ItemDto> items = itemRepository.findItemDtosByRequestIds(requests
+                .stream()
+                .map(ItemRequestDto::getId)
+                .collect(toList()));
+
+        assertThat(requests, hasSize(ITEMS));
+        assertThat(items, hasSize(ITEMS));
+        assertStatements(2);
+        assertNoEntities();
+    }
+
+    @Test
+    void searchTest() {
+        List<ItemDto> items = itemRepository.search("pen", Pageable.unpaged());
+
+        assertThat(items, hasSize(ITEMS));
+        assertThat(items.get(0).getRequestId(), notNullValue());
+        assertStatements(1);
+        assertNoEntities();
+    }
+
+    private void assertStatements(int selects) {
+        sqlStatements.assertExactly(exactly().selects(selects));
+    }
+
+    //projections are not managed, so there is nothing to snapshot or dirty-check at flush
+    private void assertNoEntities() {
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount(), equalTo(0));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.UserServiceImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MetricsTest {
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void serviceMethodsAreTimedTest() {
+        UserDto user = userService.save(new UserDto(null, "Timur", "timur@mail.ru"));
+        double gets = serviceCount("get", "none");
+
+        userService.get(user.getId());
+
+        assertEquals(gets + 1, serviceCount("get", "none"));
+        assertTrue(serviceCount("save", "none") >= 1);
+    }
+
+    @Test
+    void failedServiceCallsAreTaggedWithExceptionTest() {
+        double failures = serviceCount("get", ObjectNotFoundException.class.getSimpleName());
+
+        assertThrows(ObjectNotFoundException.class, () -> userService.get(Long.MAX_VALUE));
+
+        assertEquals(failures + 1, serviceCount("get", ObjectNotFoundException.class.getSimpleName()));
+    }
+
+    @Test
+    void repositoryMethodsAreTimedTest() {
+        userService.getAll();
+
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository")
+                .tag("method", "findAll")
+                .timer()
+                .count() >= 1);
+    }
+
+    private double serviceCount(String method, String exception) {
+        return meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("class", UserServiceImpl.class.getName())
+                .tag("method", method)
+                .tag("exception", exception)
+                .timers()
+                .stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.hasItems;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class SchemaMigrationTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsCreateIndexesTest() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+
+        assertThat(indexes, hasItems(
+                "idx_bookings_booker_start",
+                "idx_bookings_item_start",
+                "idx_bookings_item_status_end",
+                "idx_items_owner",
+                "idx_items_request",
+                "idx_comments_item_created",
+                "idx_requests_requester_created"));
+    }
+
+    @Test
+    void nextBookingLookupUsesIndexTest() {
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM bookings WHERE item_id = 1 AND status = 'APPROVED' AND end_date > CURRENT_TIMESTAMP",
+                String.class));
+
+        assertThat(plan, containsStringIgnoringCase("idx_bookings_item_status_end"));
+    }
+}
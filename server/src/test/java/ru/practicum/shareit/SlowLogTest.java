@@ -0,0 +1,97 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.slow-log.sql-threshold=0ms",
+        "shareit.slow-log.request-threshold=0ms",
+        "shareit.slow-log.max-per-second=1000",
+        "shareit.slow-log.fetch-sample-rate=1"
+})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SlowLogTest {
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    void initialize() {
+        user = userRepository.save(User.builder().name("Sloane").email("sloane@mail.ru").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void slowStatementAndRequestAreLoggedAsJsonTest(CapturedOutput output) throws Exception {
+        int from = output.getOut().length();
+
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        List<Map<String, Object>> entries = entries(output.getOut().substring(from));
+        Map<String, Object> sql = entries.stream()
+                .filter(entry -> entry.get("type").equals("sql"))
+                .findFirst()
+                .orElseThrow();
+        Map<String, Object> http = entries.stream()
+                .filter(entry -> entry.get("type").equals("http"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat((String) sql.get("statement"), allOf(startsWith("select"), containsString("from users")));
+        assertThat(sql.get("parameters"), equalTo(List.of("Long")));
+        assertThat(sql.get("rows"), equalTo(1));
+        assertThat(sql.get("handler"), equalTo("UserController.get"));
+        assertThat(sql, hasKey("durationMs"));
+        assertThat(http.get("route"), equalTo("/users/{userId}"));
+        assertThat(http.get("status"), equalTo(200));
+        assertThat(http.get("handler"), equalTo("UserController.get"));
+        assertThat(http.get("statements"), equalTo(1));
+    }
+
+    private List<Map<String, Object>> entries(String output) {
+        return output.lines()
+                .filter(line -> line.contains("shareit.slow-log"))
+                .map(line -> line.substring(line.indexOf('{')))
+                .map(this::read)
+                .collect(toList());
+    }
+
+    private Map<String, Object> read(String json) {
+        try {
+            return mapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(json, e);
+        }
+    }
+}
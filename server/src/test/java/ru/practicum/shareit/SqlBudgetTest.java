@@ -0,0 +1,372 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemBookings;
+import ru.practicum.shareit.booking.ItemBookingsRepository;
+import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.support.SqlBudget;
+import ru.practicum.shareit.support.SqlStatements;
+import ru.practicum.shareit.support.SqlStatementsConfig;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static java.time.temporal.ChronoUnit.MICROS;
+import static java.util.stream.Collectors.joining;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.support.SqlBudget.atMost;
+
+//statement budgets per endpoint with cold caches, an N+1 over the seeded items, bookings and comments exceeds them
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementsConfig.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlBudgetTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private static final int ITEMS = 3;
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final SqlStatements sqlStatements;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingsRepository itemBookingsRepository;
+    private final BookingService bookingService;
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Booking pastBooking;
+    private Booking futureBooking;
+
+    @BeforeEach
+    void initialize() {
+        owner = user("owner");
+        booker = user("booker");
+        user("stranger");
+        LocalDateTime now = now().truncatedTo(MICROS);
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requester(booker)
+                .created(now.minusDays(3))
+                .build());
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("drill" + i)
+                    .description("cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .request(i == 0 ? request : null)
+                    .build());
+            items.add(item);
+            pastBooking = booking(item, now.minusDays(2), now.minusDays(1), Status.APPROVED);
+            futureBooking = booking(item, now.plusDays(1 + i), now.plusDays(2 + i), Status.WAITING);
+            commentRepository.save(Comment.builder()
+                    .text("works fine")
+                    .item(item)
+                    .author(booker)
+                    .created(now.minusHours(12))
+                    .build());
+            itemBookingsRepository.save(ItemBookings.builder()
+                    .itemId(item.getId())
+                    .refreshAt(now)
+                    .build());
+        }
+        bookingService.refreshItemBookings();
+        sqlStatements.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        //users cascade to their items, requests, bookings and comments
+        jdbcTemplate.update("delete from users where id in (" +
+                users.stream().map(user -> String.valueOf(user.getId())).collect(joining(",")) + ")");
+    }
+
+    //users
+
+    @Test
+    void createUserTest() throws Exception {
+        perform(post("/users")
+                .content(json(new UserDto(null, "newcomer", "newcomer@mail.ru")))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().inserts(1));
+    }
+
+    @Test
+    void updateUserTest() throws Exception {
+        perform(patch("/users/{userId}", booker.getId())
+                .content(json(new UserDto(null, "renamed", null)))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(1).updates(1));
+    }
+
+    @Test
+    void getUserTest() throws Exception {
+        perform(get("/users/{userId}", booker.getId()));
+        sqlStatements.assertWithin(atMost().selects(1));
+    }
+
+    @Test
+    void getUsersTest() throws Exception {
+        perform(get("/users"));
+        sqlStatements.assertWithin(atMost().selects(1));
+    }
+
+    @Test
+    void deleteUserTest() throws Exception {
+        User leaving = user("leaving");
+        sqlStatements.clear();
+        perform(delete("/users/{userId}", leaving.getId()));
+        sqlStatements.assertWithin(atMost().selects(1).deletes(1));
+    }
+
+    //items
+
+    @Test
+    void createItemTest() throws Exception {
+        perform(post("/items")
+                .header(USER_ID, owner.getId())
+                .content(json(new ItemDto(null, "saw", "hand saw", true, null)))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(1).inserts(1));
+    }
+
+    @Test
+    void createItemForRequestTest() throws Exception {
+        perform(post("/items")
+                .header(USER_ID, owner.getId())
+                .content(json(new ItemDto(null, "saw", "hand saw", true, request.getId())))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(4).inserts(1));
+    }
+
+    @Test
+    void updateItemTest() throws Exception {
+        perform(patch("/items/{itemId}", items.get(0).getId())
+                .header(USER_ID, owner.getId())
+                .content(json(new ItemDto(null, "hammer drill", null, null, null)))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(1).updates(1));
+    }
+
+    @Test
+    void getItemTest() throws Exception {
+        perform(get("/items/{itemId}", items.get(0).getId())
+                .header(USER_ID, owner.getId()));
+        sqlStatements.assertWithin(atMost().selects(3));
+    }
+
+    @Test
+    void getItemsTest() throws Exception {
+        perform(get("/items")
+                .header(USER_ID, owner.getId()));
+        sqlStatements.assertWithin(atMost().selects(4));
+    }
+
+    @Test
+    void getItemsPageTest() throws Exception {
+        perform(get("/items")
+                .header(USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "2"));
+        sqlStatements.assertWithin(atMost().selects(4));
+    }
+
+    @Test
+    void searchItemsTest() throws Exception {
+        perform(get("/items/search")
+                .header(USER_ID, booker.getId())
+                .param("text", "drill"));
+        sqlStatements.assertWithin(atMost().selects(1));
+    }
+
+    @Test
+    void searchAvailableItemsTest() throws Exception {
+        perform(get("/items/search")
+                .header(USER_ID, booker.getId())
+                .param("text", "drill")
+                .param("start", now().plusDays(10).toString())
+                .param("end", now().plusDays(11).toString()));
+        sqlStatements.assertWithin(atMost().selects(1));
+    }
+
+    @Test
+    void createCommentTest() throws Exception {
+        perform(post("/items/{itemId}/comment", items.get(0).getId())
+                .header(USER_ID, booker.getId())
+                .content(json(CommentDto.builder().text("still works").build()))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(3).inserts(1));
+    }
+
+    //bookings
+
+    @Test
+    void createBookingTest() throws Exception {
+        perform(post("/bookings")
+                .header(USER_ID, booker.getId())
+                .content(json(BookingControllerDto.builder()
+                        .itemId(items.get(1).getId())
+                        .start(now().plusDays(20))
+                        .end(now().plusDays(21))
+                        .build()))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(7).inserts(1));
+    }
+
+    @Test
+    void approveBookingTest() throws Exception {
+        perform(patch("/bookings/{bookingId}", futureBooking.getId())
+                .header(USER_ID, owner.getId())
+                .param("approved", "true"));
+        sqlStatements.assertWithin(atMost().selects(5).updates(1));
+    }
+
+    @Test
+    void getBookingTest() throws Exception {
+        perform(get("/bookings/{bookingId}", pastBooking.getId())
+                .header(USER_ID, booker.getId()));
+        sqlStatements.assertWithin(atMost().selects(1));
+    }
+
+    @Test
+    void getBookerBookingsTest() throws Exception {
+        perform(get("/bookings")
+                .header(USER_ID, booker.getId())
+                .param("state", "ALL"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    @Test
+    void getBookerBookingsPageTest() throws Exception {
+        perform(get("/bookings")
+                .header(USER_ID, booker.getId())
+                .param("state", "PAST")
+                .param("from", "0")
+                .param("size", "2"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    @Test
+    void getBookerBookingsAfterTest() throws Exception {
+        perform(get("/bookings")
+                .header(USER_ID, booker.getId())
+                .param("state", "FUTURE")
+                .param("after", BookingCursor.FIRST.encode())
+                .param("size", "2"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    @Test
+    void getOwnerBookingsTest() throws Exception {
+        perform(get("/bookings/owner")
+                .header(USER_ID, owner.getId())
+                .param("state", "WAITING"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    @Test
+    void getOwnerBookingsAfterTest() throws Exception {
+        perform(get("/bookings/owner")
+                .header(USER_ID, owner.getId())
+                .param("after", BookingCursor.FIRST.encode())
+                .param("size", "2"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    //requests
+
+    @Test
+    void createItemRequestTest() throws Exception {
+        perform(post("/requests")
+                .header(USER_ID, owner.getId())
+                .content(json(new ItemRequestDto(null, "need a ladder", null, null, List.of())))
+                .contentType(APPLICATION_JSON));
+        sqlStatements.assertWithin(atMost().selects(1).inserts(1));
+    }
+
+    @Test
+    void getOwnItemRequestsTest() throws Exception {
+        perform(get("/requests")
+                .header(USER_ID, booker.getId()));
+        sqlStatements.assertWithin(atMost().selects(3));
+    }
+
+    @Test
+    void getAllItemRequestsTest() throws Exception {
+        perform(get("/requests/all")
+                .header(USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "10"));
+        sqlStatements.assertWithin(atMost().selects(2));
+    }
+
+    @Test
+    void getItemRequestTest() throws Exception {
+        perform(get("/requests/{requestId}", request.getId())
+                .header(USER_ID, owner.getId()));
+        sqlStatements.assertWithin(atMost().selects(3));
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mvc.perform(request).andExpect(status().is2xxSuccessful());
+    }
+
+    private String json(Object body) throws Exception {
+        return mapper.writeValueAsString(body);
+    }
+
+    private User user(String name) {
+        User user = userRepository.save(User.builder().name(name).email(name + "@mail.ru").build());
+        users.add(user);
+        return user;
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.support.RecordedSpans;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sleuth.sampler.probability=1.0")
+@AutoConfigureMockMvc
+@Import(RecordedSpans.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class TracingTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String GATEWAY_SPAN_ID = "b7ad6b7169203331";
+
+    private final MockMvc mvc;
+    private final RecordedSpans recordedSpans;
+    private final UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    void initialize() {
+        user = userRepository.save(User.builder().name("Tracy").email("tracy@mail.ru").build());
+        recordedSpans.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void serverContinuesGatewayTraceTest() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        FinishedSpan http = recordedSpans.named(TRACE_ID, "GET /users/{userId}");
+        FinishedSpan service = recordedSpans.named(TRACE_ID, "UserServiceImpl.get");
+        List<FinishedSpan> queries = recordedSpans.ofTrace(TRACE_ID).stream()
+                .filter(span -> span.getTags().containsKey("jdbc.query"))
+                .collect(toList());
+
+        assertThat(http.getParentId(), equalTo(GATEWAY_SPAN_ID));
+        assertThat(service.getParentId(), equalTo(http.getSpanId()));
+        assertThat(queries, hasSize(1));
+        assertThat(queries.get(0).getTags().get("jdbc.query"), startsWith("select"));
+        assertThat(recordedSpans.isDescendant(queries.get(0), service), is(true));
+    }
+
+    @Test
+    void requestWithoutTraceparentStartsTraceTest() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        FinishedSpan http = recordedSpans.named("GET /users/{userId}");
+        FinishedSpan service = recordedSpans.named(http.getTraceId(), "UserServiceImpl.get");
+
+        assertThat(http.getParentId(), nullValue());
+        assertThat(service.getParentId(), equalTo(http.getSpanId()));
+    }
+}
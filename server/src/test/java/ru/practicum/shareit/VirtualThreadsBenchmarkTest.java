@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.LocalDateTime.now;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Throughput of GET /bookings?state=ALL with 200 and 2000 concurrent clients.
+ * The booking list is read from the database on every request, unlike the cached users and items.
+ * Run once per mode and compare the logged numbers:
+ * <pre>
+ * mvn -pl server test -Dtest=VirtualThreadsBenchmarkTest -Dshareit.benchmark=true
+ * mvn -pl server test -Pjdk21 -Dtest=VirtualThreadsBenchmarkTest -Dshareit.benchmark=true -Dshareit.virtual-threads.enabled=true
+ * </pre>
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class VirtualThreadsBenchmarkTest {
+    private static final Duration DURATION = Duration.ofSeconds(10);
+    @LocalServerPort
+    private int port;
+    @Value("${shareit.virtual-threads.enabled}")
+    private boolean virtualThreads;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void throughputTest() throws Exception {
+        UserDto owner = userService.save(new UserDto(null, "Bench", "bench@mail.ru"));
+        UserDto booker = userService.save(new UserDto(null, "Booker", "booker@mail.ru"));
+        try {
+            ItemDto item = itemService.save(new ItemDto(null, "Дрель", "Ударная", true, null), null, owner.getId());
+            bookingService.save(BookingControllerDto.builder()
+                            .start(now().plusDays(1))
+                            .end(now().plusDays(2))
+                            .itemId(item.getId())
+                            .build(),
+                    new ItemAllDto(item.getId(), item.getName(), item.getDescription(), true, owner.getId(),
+                            null, null, null, List.of()),
+                    booker.getId());
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings?state=ALL"))
+                    .header("X-Sharer-User-Id", String.valueOf(booker.getId()))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            for (int clients : new int[]{200, 2000}) {
+                run(client, request, clients);
+            }
+        } finally {
+            userService.delete(booker.getId());
+            userService.delete(owner.getId());
+        }
+    }
+
+    private void run(HttpClient client, HttpRequest request, int clients) throws InterruptedException {
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        for (int i = 0; i < clients; i++) {
+            new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            (response.statusCode() == 200 ? ok : failed).incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        log.info("virtual threads = {}, clients = {}: {} req/s, failed = {}",
+                virtualThreads, clients, ok.get() / DURATION.toSeconds(), failed.get());
+    }
+}
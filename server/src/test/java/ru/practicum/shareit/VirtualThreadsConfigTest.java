@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import ru.practicum.shareit.util.ConcurrencyLimitFilter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsConfigTest {
+
+    @Test
+    void concurrencyLimitCoversApiOnlyTest() {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new VirtualThreadsConfig()
+                .concurrencyLimitFilter(1, Duration.ofMillis(100), new ObjectMapper());
+        Collection<String> urlPatterns = registration.getUrlPatterns();
+
+        assertTrue(urlPatterns.containsAll(List.of("/bookings/*", "/items/*", "/requests/*", "/users/*")));
+        assertFalse(urlPatterns.contains("/*"));
+        assertTrue(urlPatterns.stream().noneMatch(pattern -> pattern.startsWith("/actuator")));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.exception.ParameterException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.time.LocalDateTime.now;
+import static java.time.temporal.ChronoUnit.HOURS;
+import static java.util.List.of;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyTest {
+    private static final int REQUESTS = 300;
+    private static final int BOOKERS = 10;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    void parallelBookingsDoNotOverlapTest() throws Exception {
+        UserDto owner = saveUser("owner");
+        ItemDto itemDto = itemService.save(new ItemDto(null, "Drill", "Cordless drill", true, null), null, owner.getId());
+        ItemAllDto item = new ItemAllDto(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), true,
+                owner.getId(), null, null, null, of());
+        List<UserDto> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) bookers.add(saveUser("booker" + i));
+        LocalDateTime base = now().plusDays(1).truncatedTo(HOURS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDateTime start = base.plusHours(i % 60);
+            LocalDateTime end = start.plusHours(1 + i % 3);
+            Long bookerId = bookers.get(i % BOOKERS).getId();
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.save(new BookingControllerDto(null, start, end, item.getId(), bookerId, null),
+                            item, bookerId);
+                    return true;
+                } catch (ParameterException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int saved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) saved++;
+        }
+        executor.shutdown();
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(toList());
+        assertThat(saved, greaterThan(0));
+        assertThat(bookings.size(), equalTo(saved));
+        for (int i = 1; i < bookings.size(); i++) {
+            assertThat(bookings.get(i - 1).getEnd(), lessThanOrEqualTo(bookings.get(i).getStart()));
+        }
+    }
+
+    private UserDto saveUser(String name) {
+        UserDto user = userService.save(new UserDto(null, name, name + "@concurrency.ru"));
+        userIds.add(user.getId());
+        return user;
+    }
+}
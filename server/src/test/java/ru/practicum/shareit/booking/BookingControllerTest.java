@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
@@ -26,6 +28,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.enums.Status.WAITING;
@@ -102,6 +105,38 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getBookingsByOwnerAfterCursorTest() throws Exception {
+        when(bookingService.getBookingsByOwnerAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new SliceImpl<>(of(bookingAllFieldsDto), PageRequest.of(0, 1), true));
+        mvc.perform(get("/bookings/owner")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("after", "")
+                )
+                .andExpect(jsonPath("$[0].id", is(bookingAllFieldsDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor",
+                        new BookingCursor(bookingAllFieldsDto.getStart(), bookingAllFieldsDto.getId()).encode()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllBookingsLastSliceTest() throws Exception {
+        when(bookingService.getAllAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new SliceImpl<>(of(bookingAllFieldsDto), PageRequest.of(0, 1), false));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("after", "MjAwMC0xMi0wM1QwMDowNToxMCwx")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void approveTest() throws Exception {
         when(bookingService.approve(anyLong(), anyBoolean(), anyLong()))
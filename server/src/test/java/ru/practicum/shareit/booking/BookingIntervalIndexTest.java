@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.enums.Status.APPROVED;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1);
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @BeforeEach
+    void initialize() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @Test
+    void rebuildTest() {
+        when(bookingRepository.findIntervals(eq(APPROVED), any()))
+                .thenReturn(of(new BookingInterval(1L, 10L, 20L, hours(2), hours(4))));
+        bookingIntervalIndex.rebuild();
+        assertFalse(bookingIntervalIndex.isFree(1L, hours(3), hours(5)));
+        assertTrue(bookingIntervalIndex.isFree(1L, hours(4), hours(6)));
+        assertTrue(bookingIntervalIndex.isFree(1L, hours(0), hours(2)));
+        assertTrue(bookingIntervalIndex.isFree(2L, hours(3), hours(5)));
+    }
+
+    @Test
+    void addMergesIntervalsTest() {
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(2), hours(4)));
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(8), hours(10)));
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(3), hours(9)));
+        assertFalse(bookingIntervalIndex.isFree(1L, hours(5), hours(6)));
+        assertFalse(bookingIntervalIndex.isFree(1L, hours(0), hours(11)));
+        assertTrue(bookingIntervalIndex.isFree(1L, hours(10), hours(11)));
+        assertTrue(bookingIntervalIndex.isFree(1L, hours(1), hours(2)));
+    }
+
+    @Test
+    void rebuildKeepsIntervalsAddedWhileReadingTest() {
+        when(bookingRepository.findIntervals(eq(APPROVED), any())).thenAnswer(invocation -> {
+            bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(2), hours(4)));
+            return of();
+        });
+        bookingIntervalIndex.rebuild();
+        assertFalse(bookingIntervalIndex.isFree(1L, hours(3), hours(5)));
+    }
+
+    @Test
+    void userDeletionReloadsItsItemsTest() {
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(2), hours(4)));
+        bookingIntervalIndex.addAfterCommit(booking(2L, 20L, 30L, hours(2), hours(4)));
+        bookingIntervalIndex.addAfterCommit(booking(3L, 30L, 40L, hours(2), hours(4)));
+        bookingIntervalIndex.addAfterCommit(booking(3L, 30L, 20L, hours(6), hours(8)));
+        when(bookingRepository.findItemIntervals(eq(Set.of(1L, 2L, 3L)), eq(APPROVED), any()))
+                .thenReturn(of(new BookingInterval(3L, 30L, 40L, hours(2), hours(4))));
+        bookingIntervalIndex.onUserDeleted(new UserDeletedEvent(20L));
+        assertTrue(bookingIntervalIndex.isFree(1L, hours(3), hours(5)));
+        assertTrue(bookingIntervalIndex.isFree(2L, hours(3), hours(5)));
+        assertFalse(bookingIntervalIndex.isFree(3L, hours(3), hours(5)));
+        assertTrue(bookingIntervalIndex.isFree(3L, hours(6), hours(8)));
+        assertEquals(1, bookingIntervalIndex.size());
+    }
+
+    @Test
+    void userWithoutBookingsDeletionReadsNothingTest() {
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, hours(2), hours(4)));
+        bookingIntervalIndex.onUserDeleted(new UserDeletedEvent(30L));
+        verifyNoInteractions(bookingRepository);
+        assertFalse(bookingIntervalIndex.isFree(1L, hours(3), hours(5)));
+    }
+
+    @Test
+    void pruneEndedIntervalsTest() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingIntervalIndex.addAfterCommit(booking(1L, 10L, 20L, now.minusDays(3), now.minusDays(2)));
+        bookingIntervalIndex.addAfterCommit(booking(2L, 10L, 20L, now.minusDays(3), now.minusDays(2)));
+        bookingIntervalIndex.addAfterCommit(booking(2L, 10L, 20L, hours(2), hours(4)));
+        bookingIntervalIndex.prune();
+        assertEquals(1, bookingIntervalIndex.size());
+        assertFalse(bookingIntervalIndex.isFree(2L, hours(3), hours(5)));
+        //the pruned item is no longer re-read when its owner is deleted
+        when(bookingRepository.findItemIntervals(eq(Set.of(2L)), eq(APPROVED), any())).thenReturn(of());
+        bookingIntervalIndex.onUserDeleted(new UserDeletedEvent(10L));
+        assertEquals(0, bookingIntervalIndex.size());
+    }
+
+    private static Booking booking(Long itemId, Long ownerId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(Item.builder().id(itemId).owner(User.builder().id(ownerId).build()).build())
+                .booker(User.builder().id(bookerId).build())
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    private static LocalDateTime hours(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.item.ItemService;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.time.LocalDateTime.now;
@@ -22,6 +24,7 @@ import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static ru.practicum.shareit.enums.Status.APPROVED;
 import static ru.practicum.shareit.enums.Status.WAITING;
 
@@ -35,6 +38,7 @@ class BookingServiceImplTest {
     private final UserService userService;
     private final ItemService itemService;
     private ItemDto itemDto;
+    private ItemAllDto itemAllFieldsDto;
     private UserDto owner;
 
     @BeforeEach
@@ -61,7 +65,7 @@ class BookingServiceImplTest {
                 null,
                 owner.getId()
         );
-        ItemAllDto itemAllFieldsDto = new ItemAllDto(
+        itemAllFieldsDto = new ItemAllDto(
                 itemDto.getId(),
                 itemDto.getName(),
                 itemDto.getDescription(),
@@ -229,4 +233,90 @@ class BookingServiceImplTest {
         assertThat(approved.getId(),
                 equalTo(booking.getId()));
     }
+
+    @Test
+    void getAllBookingsAfterCursorTest() {
+        Long bookerId = bookingAllFieldsDto.getBooker().getId();
+        for (int i = 1; i <= 2; i++) {
+            bookingService.save(
+                    BookingControllerDto.builder()
+                            .start(now().plusHours(i * 3))
+                            .end(now().plusHours(i * 3 + 1))
+                            .itemId(itemDto.getId())
+                            .build(),
+                    itemAllFieldsDto,
+                    bookerId);
+        }
+        List<Booking> expected = entityManager.createQuery(
+                        "SELECT booking " +
+                                "FROM Booking booking " +
+                                "WHERE booking.booker.id = :id " +
+                                "ORDER BY booking.start DESC, booking.id DESC",
+                        Booking.class)
+                .setParameter("id", bookerId)
+                .getResultList();
+        Slice<BookingAllDto> first = bookingService.getAllAfter(bookerId, null, "", 2);
+        String after = BookingCursor.next(first);
+        assertThat(first.getContent().size(), equalTo(2));
+        assertThat(after, notNullValue());
+        Slice<BookingAllDto> second = bookingService.getAllAfter(bookerId, null, after, 2);
+        assertThat(second.getContent().size(), equalTo(1));
+        assertThat(BookingCursor.next(second), nullValue());
+        List<BookingAllDto> all = new ArrayList<>(first.getContent());
+        all.addAll(second.getContent());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(all.get(i).getId(), equalTo(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    void getBookingsByOwnerAfterCursorTest() {
+        Slice<BookingAllDto> bookings = bookingService.getBookingsByOwnerAfter(
+                owner.getId(),
+                WAITING.name(),
+                null,
+                10);
+        assertThat(bookings.getContent().size(), equalTo(1));
+        assertThat(bookings.getContent().get(0).getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(bookings.hasNext(), equalTo(false));
+    }
+
+    @Test
+    void saveUpdatesItemBookingsTest() {
+        ItemBookings itemBookings = bookingService.getItemBookings(of(itemDto.getId())).get(itemDto.getId());
+        assertThat(itemBookings.getLastBookingId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(itemBookings.getLastBookerId(), equalTo(bookingAllFieldsDto.getBooker().getId()));
+        assertThat(itemBookings.getNextBookingId(), nullValue());
+        assertThat(itemBookings.getRefreshAt(), nullValue());
+    }
+
+    @Test
+    void refreshItemBookingsTest() {
+        UserDto booker = userService.save(new UserDto(null, "Nick", "nick@mail.ru"));
+        BookingAllDto future = bookingService.save(
+                BookingControllerDto.builder()
+                        .start(now().plusHours(3))
+                        .end(now().plusHours(5))
+                        .build(),
+                itemAllFieldsDto,
+                booker.getId());
+        ItemBookings itemBookings = bookingService.getItemBookings(of(itemDto.getId())).get(itemDto.getId());
+        assertThat(itemBookings.getNextBookingId(), equalTo(future.getId()));
+        assertThat(itemBookings.getRefreshAt(), equalTo(future.getStart()));
+
+        entityManager.createQuery("UPDATE Booking booking SET booking.start = :start WHERE booking.id = :id")
+                .setParameter("start", now().minusMinutes(1))
+                .setParameter("id", future.getId())
+                .executeUpdate();
+        entityManager.createQuery("UPDATE ItemBookings itemBookings SET itemBookings.refreshAt = :refreshAt")
+                .setParameter("refreshAt", now().minusMinutes(1))
+                .executeUpdate();
+        entityManager.clear();
+
+        itemBookings = bookingService.getItemBookings(of(itemDto.getId())).get(itemDto.getId());
+        assertThat(itemBookings.getLastBookingId(), equalTo(future.getId()));
+        assertThat(itemBookings.getNextBookingId(), nullValue());
+        assertThat(bookingService.refreshItemBookings(), equalTo(1));
+        assertThat(bookingService.refreshItemBookings(), equalTo(0));
+    }
 }
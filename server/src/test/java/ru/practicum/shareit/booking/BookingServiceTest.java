@@ -5,19 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ParameterException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.Optional;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
@@ -26,9 +30,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.springframework.data.domain.Page.empty;
+import static ru.practicum.shareit.booking.BookingMapper.mapToBookingAllFieldsDto;
 import static ru.practicum.shareit.enums.State.*;
 import static ru.practicum.shareit.enums.Status.*;
 import static ru.practicum.shareit.user.UserMapper.toUser;
@@ -38,6 +45,14 @@ import static ru.practicum.shareit.user.UserMapper.toUser;
 class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ItemBookingsRepository itemBookingsRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private BookingControllerDto bookingControllerDto;
     private BookingService bookingService;
     @Mock
@@ -47,7 +62,8 @@ class BookingServiceTest {
 
     @BeforeEach
     void initialize() {
-        bookingService = new BookingServiceImpl(userService, bookingRepository);
+        bookingService = new BookingServiceImpl(userService, bookingRepository, itemBookingsRepository, itemRepository,
+                bookingIntervalIndex, eventPublisher);
         bookingControllerDto = bookingControllerDto.builder()
                 .id(1L)
                 .start(now())
@@ -65,10 +81,12 @@ class BookingServiceTest {
                 .id(1L)
                 .start(now())
                 .end(now().plusHours(2))
-                .item(new Item(1L, "pen", "blue pen", true, toUser(userDto), null))
-                .booker(new User(2L, "Maggie", "maggie@mail.ru"))
+                .item(new Item(1L, "pen", "blue pen", true, toUser(userDto), null, 0))
+                .booker(new User(2L, "Maggie", "maggie@mail.ru", 0))
                 .status(WAITING)
                 .build();
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.of(booking.getItem()));
     }
 
     private BookingAllDto saveBookingDto() {
@@ -203,6 +221,40 @@ class BookingServiceTest {
         assertEquals("Вещь с id = " + booking.getItem().getId() + " не может быть арендована", exception.getMessage());
     }
 
+    @Test
+    void saveBookingOverlappingTest() {
+        when(userService.get(any()))
+                .thenReturn(userDto);
+        when(bookingRepository.existsOverlapping(anyLong(), any(), any(), any(), anyLong()))
+                .thenReturn(true);
+        assertThrows(ParameterException.class,
+                () -> bookingService.save(
+                        bookingControllerDto,
+                        ItemMapper.toItemAllFieldsDto(
+                                booking.getItem(),
+                                null,
+                                null,
+                                of()),
+                        2L)
+        );
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBookingOverlappingTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        when(bookingRepository.existsOverlapping(anyLong(), eq(List.of(APPROVED)), any(), any(), eq(booking.getId())))
+                .thenReturn(true);
+        assertThrows(ParameterException.class,
+                () -> bookingService.approve(
+                        booking.getId(),
+                        true,
+                        userDto.getId())
+        );
+        assertEquals(WAITING, booking.getStatus());
+    }
+
     @Test
     void saveBookingNotAvailableItemTest() {
         booking.getItem().setAvailable(false);
@@ -240,7 +292,8 @@ class BookingServiceTest {
                 booking.getEnd(),
                 booking.getItem(),
                 booking.getBooker(),
-                APPROVED);
+                APPROVED,
+                booking.getVersion() + 1);
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(ofNullable(booking));
         when(bookingRepository.save(any()))
@@ -328,11 +381,20 @@ class BookingServiceTest {
         assertEquals("size <= 0 || from < 0", exception.getMessage());
     }
 
+    @Test
+    void getAllBookingsAfterIncorrectCursorTest() {
+        when(userService.get(anyLong()))
+                .thenReturn(userDto);
+        Exception exception = assertThrows(IncorrectParameterException.class,
+                () -> bookingService.getAllAfter(1L, ALL.name(), "not-a-cursor", 10));
+        assertEquals("Некорректный курсор: not-a-cursor", exception.getMessage());
+    }
+
     @Test
     void getAllBookingsTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsOrderByStartDesc(any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 null,
@@ -371,8 +433,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsFutureStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 FUTURE.name(),
@@ -386,8 +448,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPastStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 PAST.name(),
@@ -401,8 +463,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCurrentStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 CURRENT.name(),
@@ -416,7 +478,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsEmptyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -430,8 +492,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsRejectStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 REJECTED.name(),
@@ -445,7 +507,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCancelStateEmptyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -459,8 +521,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPastStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 PAST.name(),
@@ -474,8 +536,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 null,
@@ -489,8 +551,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdAllStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 ALL.name(),
@@ -504,8 +566,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdFutureStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 FUTURE.name(),
@@ -519,8 +581,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdRejectStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 REJECTED.name(),
@@ -534,8 +596,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdCurrentStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(of(booking));
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 CURRENT.name(),
@@ -560,7 +622,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByItemTest() {
         when(bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(anyLong(), anyLong()))
-                .thenReturn(of(booking));
+                .thenReturn(of(mapToBookingAllFieldsDto(booking)));
         List<BookingAllDto> bookings = bookingService.getBookingsByItem(
                 1L,
                 2L
@@ -572,8 +634,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationFutureTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 FUTURE.name(),
@@ -586,8 +648,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationAllTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsOrderByStartDesc(any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 ALL.name(),
@@ -600,8 +662,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationPastTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 PAST.name(),
@@ -614,8 +676,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationCurrentTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 CURRENT.name(),
@@ -628,8 +690,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationAnyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 CANCELED.name(),
@@ -642,7 +704,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPastTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -654,7 +716,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdCurrentTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -666,7 +728,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdFutureTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -678,7 +740,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdAnyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -690,8 +752,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationNotNullTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 ALL.name(),
@@ -704,8 +766,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationPastTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 PAST.name(),
@@ -718,8 +780,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationCurrentTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 CURRENT.name(),
@@ -732,8 +794,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationFutureTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 FUTURE.name(),
@@ -746,8 +808,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationAnyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingRepository.findOwnerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 CANCELED.name(),
@@ -760,7 +822,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsAllTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsOrderByStartDesc(any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -772,7 +834,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCurrentTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -784,7 +846,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsFutureTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -796,7 +858,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsAnyTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookerBookings(anyLong(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
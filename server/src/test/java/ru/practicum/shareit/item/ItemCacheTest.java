@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.UserRenamedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCacheTest {
+    private static final long OWNER_ID = 1L;
+    private static final long VIEWER_ID = 2L;
+    private final ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void getByViewerRoleTest() {
+        ItemAllDto shared = item(null);
+        ItemAllDto ownerView = item(new BookingDto(5L, VIEWER_ID));
+        itemCache.put(itemCache.generation(10L), shared, ownerView, LocalDateTime.now().plusHours(1));
+
+        assertSame(shared, itemCache.get(10L, VIEWER_ID));
+        assertSame(ownerView, itemCache.get(10L, OWNER_ID));
+        assertNull(itemCache.get(11L, VIEWER_ID));
+    }
+
+    @Test
+    void ownerViewExpiresAtNextBookingStartTest() {
+        ItemAllDto shared = item(null);
+        itemCache.put(itemCache.generation(10L), shared, item(new BookingDto(5L, VIEWER_ID)), LocalDateTime.now().minusSeconds(1));
+
+        assertNull(itemCache.get(10L, OWNER_ID));
+        assertSame(shared, itemCache.get(10L, VIEWER_ID));
+    }
+
+    @Test
+    void invalidatedByEventsTest() {
+        itemCache.put(itemCache.generation(10L), item(null), item(null), null);
+        itemCache.onItemChanged(new ItemChangedEvent(10L));
+        assertNull(itemCache.get(10L, VIEWER_ID));
+        assertNull(itemCache.get(10L, OWNER_ID));
+
+        itemCache.put(itemCache.generation(10L), item(null), null, null);
+        itemCache.onUserDeleted(new UserDeletedEvent(OWNER_ID));
+        assertNull(itemCache.get(10L, VIEWER_ID));
+
+        itemCache.put(itemCache.generation(10L), item(null), null, null);
+        itemCache.onUserRenamed(new UserRenamedEvent(VIEWER_ID));
+        assertNull(itemCache.get(10L, VIEWER_ID));
+    }
+
+    @Test
+    void staleLoadIsNotCachedTest() {
+        long generation = itemCache.generation(10L);
+        itemCache.onItemChanged(new ItemChangedEvent(10L));
+        itemCache.put(generation, item(null), null, null);
+        assertNull(itemCache.get(10L, VIEWER_ID));
+    }
+
+    @Test
+    void otherItemChangesDoNotDiscardLoadTest() {
+        long generation = itemCache.generation(10L);
+        itemCache.onItemChanged(new ItemChangedEvent(11L));
+        itemCache.put(generation, item(null), null, null);
+        assertNotNull(itemCache.get(10L, VIEWER_ID));
+
+        itemCache.onUserDeleted(new UserDeletedEvent(OWNER_ID));
+        assertNotEquals(generation, itemCache.generation(10L));
+    }
+
+    private static ItemAllDto item(BookingDto nextBooking) {
+        return new ItemAllDto(10L, "Drill", "Cordless drill", true, OWNER_ID, null, null, nextBooking, of());
+    }
+}
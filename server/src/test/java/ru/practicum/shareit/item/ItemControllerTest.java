@@ -13,12 +13,15 @@ import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.ItemRequestService;
 
+import java.time.LocalDateTime;
+
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -185,6 +188,26 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void searchAvailableTest() throws Exception {
+        when(itemService.getAvailableByText(anyString(), any(), any(), any(), any()))
+                .thenReturn(of(itemDto));
+        mvc.perform(get("/items/search")
+                        .header(headerSharerUserId, 1)
+                        .param("text", "pen")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00")
+                )
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(status().isOk());
+        verify(itemService).getAvailableByText("pen",
+                LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0),
+                null,
+                null);
+    }
+
     @Test
     void saveValidationExceptionTest() throws Exception {
         when(itemService.save(any(), any(), anyLong()))
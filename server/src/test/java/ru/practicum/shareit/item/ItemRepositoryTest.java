@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -61,21 +66,55 @@ class ItemRepositoryTest {
 
     @Test
     void shouldReturnAllItems() {
-        List<Item> items = itemRepository.getAllText("pen");
-        assertThat(items, containsInAnyOrder(item1, item2, item3));
+        List<ItemDto> items = itemRepository.search("pen", Pageable.unpaged());
+        assertThat(items, containsInAnyOrder(ItemMapper.toItemDto(item1), ItemMapper.toItemDto(item2), ItemMapper.toItemDto(item3)));
         assertThat(items, hasSize(3));
     }
 
     @Test
     void shouldReturnTwoItems() {
-        List<Item> items = itemRepository.getAllText("black pen");
-        assertThat(items, containsInAnyOrder(item1, item3));
+        List<ItemDto> items = itemRepository.search("black pen", Pageable.unpaged());
+        assertThat(items, containsInAnyOrder(ItemMapper.toItemDto(item1), ItemMapper.toItemDto(item3)));
         assertThat(items, hasSize(2));
     }
 
     @Test
     void shouldReturnNoItems() {
-        List<Item> items = itemRepository.getAllText("brick");
+        List<ItemDto> items = itemRepository.search("brick", Pageable.unpaged());
         assertThat(items, empty());
     }
+
+    @Test
+    void searchShouldReturnPageOrderedById() {
+        List<ItemDto> items = itemRepository.search("black", PageRequest.of(0, 1));
+        assertThat(items, contains(ItemMapper.toItemDto(item1)));
+        items = itemRepository.search("black", PageRequest.of(1, 1));
+        assertThat(items, contains(ItemMapper.toItemDto(item3)));
+    }
+
+    @Test
+    void searchShouldReturnAllItemsUnpaged() {
+        List<ItemDto> items = itemRepository.search("PEN", Pageable.unpaged());
+        assertThat(items, contains(ItemMapper.toItemDto(item1), ItemMapper.toItemDto(item2), ItemMapper.toItemDto(item3)));
+    }
+
+    @Test
+    void shouldReturnIdsOfOwnedAndRequestedItems() {
+        User requester = User.builder().name("Jones").email("jones@mail.ru").build();
+        User other = User.builder().name("Brown").email("brown@mail.ru").build();
+        entityManager.persist(requester);
+        entityManager.persist(other);
+        ItemRequest request = ItemRequest.builder()
+                .description("need a pen")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+        entityManager.persist(request);
+        Item answer = Item.builder().name("pen4").description("blue pen").available(true).owner(other).request(request).build();
+        entityManager.persist(answer);
+
+        assertThat(itemRepository.findIdsByOwnerOrRequester(requester.getId()), contains(answer.getId()));
+        assertThat(itemRepository.findIdsByOwnerOrRequester(user.getId()),
+                containsInAnyOrder(item1.getId(), item2.getId(), item3.getId()));
+    }
 }
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.List;
+
+import static java.util.List.of;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void initialize() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true, 3);
+        when(itemRepository.findAvailableItemDtos()).thenReturn(of(
+                new ItemDto(1L, "Дрель", "Ударная дрель Bosch", true, null),
+                new ItemDto(2L, "Отвертка", "Аккумуляторная отвертка", true, null),
+                new ItemDto(3L, "Дрель-шуруповерт", "Аккумуляторная, два аккумулятора", true, null)));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchByPrefixTest() {
+        assertEquals(of(1L, 3L), ids(itemSearchIndex.search("дрел", 0, 10)));
+        assertEquals(of(2L, 3L), ids(itemSearchIndex.search("АККУМ", 0, 10)));
+        assertEquals(of(), ids(itemSearchIndex.search("пила", 0, 10)));
+    }
+
+    @Test
+    void searchAllTokensTest() {
+        assertEquals(of(3L), ids(itemSearchIndex.search("дрель аккумуляторная", 0, 10)));
+        assertEquals(of(1L), ids(itemSearchIndex.search("bosch, дрель", 0, 10)));
+    }
+
+    @Test
+    void searchPageTest() {
+        assertEquals(of(3L), ids(itemSearchIndex.search("аккум", 1, 10)));
+        assertEquals(of(2L), ids(itemSearchIndex.search("аккум", 0, 1)));
+    }
+
+    @Test
+    void shortTokenMatchesWholeWordTest() {
+        itemSearchIndex.put(new ItemDto(4L, "Пила", "По дереву", true, null));
+        itemSearchIndex.put(new ItemDto(5L, "Пилка", "Пол и потолок", true, null));
+
+        assertEquals(of(4L), ids(itemSearchIndex.search("по", 0, 10)));
+        assertEquals(of(5L), ids(itemSearchIndex.search("пот", 0, 10)));
+        assertEquals(of(4L, 5L), ids(itemSearchIndex.search("пил", 0, 10)));
+    }
+
+    @Test
+    void searchPageAcrossManyItemsTest() {
+        for (long id = 10; id < 1000; id++) {
+            itemSearchIndex.put(new ItemDto(id, "Ключ " + id, id % 3 == 0 ? "Рожковый" : "Накидной", true, null));
+        }
+
+        assertEquals(of(21L, 24L, 27L), ids(itemSearchIndex.search("рожк ключ", 3, 3)));
+        assertEquals(of(993L, 996L, 999L), ids(itemSearchIndex.search("ключ рожковый", 327, 10)));
+    }
+
+    @Test
+    void putAndRemoveTest() {
+        itemSearchIndex.put(new ItemDto(1L, "Перфоратор", "Ударный", true, null));
+        assertEquals(of(3L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(of(1L), ids(itemSearchIndex.search("перфоратор", 0, 10)));
+
+        itemSearchIndex.put(new ItemDto(2L, "Отвертка", "Аккумуляторная отвертка", false, null));
+        assertEquals(of(3L), ids(itemSearchIndex.search("аккум", 0, 10)));
+
+        itemSearchIndex.remove(3L);
+        assertEquals(of(), ids(itemSearchIndex.search("дрель", 0, 10)));
+    }
+
+    @Test
+    void checkFindsMissingItemTest() {
+        itemSearchIndex.remove(2L);
+        assertEquals(of(3L), ids(itemSearchIndex.search("аккум", 0, 10)));
+
+        itemSearchIndex.check();
+        assertEquals(of(2L, 3L), ids(itemSearchIndex.search("аккум", 0, 10)));
+    }
+
+    @Test
+    void checkFindsEditedItemTest() {
+        itemSearchIndex.put(new ItemDto(1L, "Перфоратор", "Ударный", true, null));
+
+        itemSearchIndex.check();
+        assertEquals(of(1L, 3L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(of(), ids(itemSearchIndex.search("перфоратор", 0, 10)));
+    }
+
+    @Test
+    void userDeletionRemovesItemsTest() {
+        when(itemRepository.findIdsByOwnerOrRequester(5L)).thenReturn(of(1L, 2L));
+
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(5L));
+        assertEquals(of(3L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(of(3L), ids(itemSearchIndex.search("аккум", 0, 10)));
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(toList());
+    }
+}
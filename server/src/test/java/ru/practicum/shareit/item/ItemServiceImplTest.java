@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -38,6 +39,7 @@ class ItemServiceImplTest {
     private final ItemService itemService;
     private UserDto userDto;
     private ItemDto itemDto;
+    private int pastBookings;
 
     @BeforeEach
     void initialize() {
@@ -58,13 +60,14 @@ class ItemServiceImplTest {
         );
     }
 
-    private CommentDto saveCommentDto(String commentText, UserDto userDto) {
-        UserDto booker = userService.save(userDto);
+    private CommentDto saveCommentDto(String commentText, UserDto bookerDto) {
+        UserDto booker = userService.save(bookerDto);
+        pastBookings++;
         bookingService.save(
                 new BookingControllerDto(
                         null,
-                        now().minusSeconds(2),
-                        now().minusSeconds(1),
+                        now().minusSeconds(2L * pastBookings),
+                        now().minusSeconds(2L * pastBookings - 1),
                         itemDto.getId(),
                         booker.getId(),
                         null),
@@ -144,6 +147,41 @@ class ItemServiceImplTest {
         assertThat(item.getId(), notNullValue());
     }
 
+    @Test
+    void getAfterUpdateAndCommentTest() {
+        itemService.get(itemDto.getId(), userDto.getId());
+        itemService.update(new ItemDto(null, "Pencil", null, null, null), itemDto.getId(), userDto.getId());
+        assertThat(itemService.get(itemDto.getId(), userDto.getId()).getName(), equalTo("Pencil"));
+
+        saveCommentDto("Writes well", new UserDto(16L, "Ann", "ann@mail.ru"));
+        assertThat(itemService.get(itemDto.getId(), userDto.getId()).getComments(), hasSize(1));
+        assertThat(itemService.get(itemDto.getId(), userDto.getId() + 1).getComments(), hasSize(1));
+    }
+
+    @Test
+    void getAfterCommentAuthorRenamedTest() {
+        saveCommentDto("Writes well", new UserDto(null, "Ann", "ann@mail.ru"));
+        assertThat(itemService.get(itemDto.getId(), userDto.getId()).getComments().get(0).getAuthorName(), equalTo("Ann"));
+        UserDto author = userService.getAll()
+                .stream()
+                .filter(user -> user.getEmail().equals("ann@mail.ru"))
+                .findFirst()
+                .orElseThrow();
+
+        userService.update(new UserDto(null, "Anna", null), author.getId());
+
+        assertThat(itemService.get(itemDto.getId(), userDto.getId()).getComments().get(0).getAuthorName(), equalTo("Anna"));
+        assertThat(itemService.get(itemDto.getId(), author.getId()).getComments().get(0).getAuthorName(), equalTo("Anna"));
+    }
+
+    @Test
+    void updateIncrementsVersionTest() {
+        long version = itemService.get(itemDto.getId(), userDto.getId()).getVersion();
+        itemService.update(new ItemDto(null, "Pencil", null, null, null), itemDto.getId(), userDto.getId());
+        entityManager.flush();
+        assertThat(itemService.get(itemDto.getId(), userDto.getId()).getVersion(), equalTo(version + 1));
+    }
+
     @Test
     void getAllTest() {
         itemDto = itemService.save(
@@ -168,6 +206,67 @@ class ItemServiceImplTest {
         assertThat(items.size(), equalTo(allItems.size()));
     }
 
+    @Test
+    void getAllWithBookingsAndCommentsTest() {
+        ItemDto pen = itemDto;
+        saveCommentDto(
+                "Nice pen",
+                new UserDto(
+                        12L,
+                        "Richard",
+                        "richard@mail.ru")
+        );
+        UserDto booker = userService.save(
+                new UserDto(
+                        null,
+                        "Bethany",
+                        "bethany@mail.ru")
+        );
+        ItemAllDto penAllDto = new ItemAllDto(
+                pen.getId(),
+                pen.getName(),
+                pen.getDescription(),
+                true,
+                userDto.getId(),
+                null,
+                null,
+                null,
+                of());
+        BookingAllDto next = bookingService.save(
+                new BookingControllerDto(null, now().plusDays(1), now().plusDays(2), pen.getId(), booker.getId(), null),
+                penAllDto,
+                booker.getId());
+        bookingService.save(
+                new BookingControllerDto(null, now().plusDays(3), now().plusDays(4), pen.getId(), booker.getId(), null),
+                penAllDto,
+                booker.getId());
+        ItemDto doll = itemService.save(
+                new ItemDto(
+                        null,
+                        "Doll",
+                        "Tall doll",
+                        true,
+                        null),
+                null,
+                userDto.getId()
+        );
+
+        List<ItemAllDto> allItems = itemService.getAll(userDto.getId(), 0, 10);
+
+        assertThat(allItems.size(), equalTo(2));
+        ItemAllDto penDto = allItems.get(0);
+        assertThat(penDto.getId(), equalTo(pen.getId()));
+        assertThat(penDto.getLastBooking(), notNullValue());
+        assertThat(penDto.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(penDto.getNextBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(penDto.getComments().size(), equalTo(1));
+        ItemAllDto dollDto = allItems.get(1);
+        assertThat(dollDto.getId(), equalTo(doll.getId()));
+        assertThat(dollDto.getLastBooking(), nullValue());
+        assertThat(dollDto.getNextBooking(), nullValue());
+        assertThat(dollDto.getComments(), empty());
+    }
+
     @Test
     void searchNotAvailableItemTest() {
         itemDto = itemService.save(
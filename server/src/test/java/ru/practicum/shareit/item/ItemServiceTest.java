@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
@@ -15,11 +18,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.user.UserMapper.toUser;
 
@@ -33,6 +40,12 @@ class ItemServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private ItemService itemService;
     private ItemDto itemDto;
     private UserDto userDto;
@@ -44,7 +57,11 @@ class ItemServiceTest {
                 itemRepository,
                 userService,
                 commentRepository,
-                bookingService
+                bookingService,
+                itemSearchIndex,
+                itemCache,
+                eventPublisher,
+                new SimpleMeterRegistry()
         );
         userDto = new UserDto(
                 1L,
@@ -56,7 +73,8 @@ class ItemServiceTest {
                 "Deep pocket",
                 true,
                 toUser(userDto),
-                null);
+                null,
+                0);
         itemDto = ItemMapper.toItemDto(item);
     }
 
@@ -84,7 +102,8 @@ class ItemServiceTest {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 toUser(userDto),
-                null
+                null,
+                1
         );
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
@@ -98,8 +117,8 @@ class ItemServiceTest {
     @Test
     void searchTest() {
         saveItemDto();
-        when(itemRepository.getAllText(anyString()))
-                .thenReturn(of(item));
+        when(itemRepository.search(anyString(), any(Pageable.class)))
+                .thenReturn(of(ItemMapper.toItemDto(item)));
         List<ItemDto> search = itemService.getByText(
                 "oops",
                 userDto.getId(),
@@ -110,6 +129,68 @@ class ItemServiceTest {
         assertEquals(search.size(), 1);
     }
 
+    @Test
+    void searchInMemoryTest() {
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemSearchIndex.search("pocket", 0, 10))
+                .thenReturn(of(ItemMapper.toItemDto(item)));
+        List<ItemDto> search = itemService.getByText(
+                "pocket",
+                userDto.getId(),
+                0,
+                10
+        );
+        assertEquals(1, search.size());
+        assertEquals(item.getId(), search.get(0).getId());
+    }
+
+    @Test
+    void searchAvailableTest() {
+        Item booked = new Item(2L, "Pocket knife", "Sharp", true, toUser(userDto), null, 0);
+        when(itemRepository.search(anyString(), any(Pageable.class)))
+                .thenReturn(of(ItemMapper.toItemDto(item), ItemMapper.toItemDto(booked)));
+        when(bookingService.isAvailable(eq(item.getId()), any(), any()))
+                .thenReturn(true);
+        when(bookingService.isAvailable(eq(booked.getId()), any(), any()))
+                .thenReturn(false);
+        List<ItemDto> search = itemService.getAvailableByText(
+                "pocket",
+                now().plusDays(1),
+                now().plusDays(2),
+                0,
+                10
+        );
+        assertEquals(1, search.size());
+        assertEquals(item.getId(), search.get(0).getId());
+    }
+
+    @Test
+    void searchAvailableReadsMatchesInBatchesTest() {
+        when(itemRepository.search(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(1);
+            return LongStream.rangeClosed(pageable.getOffset() + 1, Math.min(pageable.getOffset() + pageable.getPageSize(), 120))
+                    .mapToObj(id -> new ItemDto(id, "Pocket", "Deep pocket", true, null))
+                    .collect(toList());
+        });
+        when(bookingService.isAvailable(anyLong(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Long>getArgument(0) % 10 == 0);
+
+        List<ItemDto> firstBatch = itemService.getAvailableByText("pocket", now().plusDays(1), now().plusDays(2), 2, 2);
+        assertEquals(of(30L, 40L), firstBatch.stream().map(ItemDto::getId).collect(toList()));
+        verify(itemRepository, times(1)).search(anyString(), any(Pageable.class));
+
+        List<ItemDto> secondBatch = itemService.getAvailableByText("pocket", now().plusDays(1), now().plusDays(2), 4, 3);
+        assertEquals(of(40L, 50L, 60L), secondBatch.stream().map(ItemDto::getId).collect(toList()));
+        verify(itemRepository, times(3)).search(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchAvailableIncorrectPeriodTest() {
+        Exception exception = assertThrows(IncorrectParameterException.class,
+                () -> itemService.getAvailableByText("pocket", now().plusDays(2), now().plusDays(1), null, null));
+        assertEquals("Некорректно задан период поиска", exception.getMessage());
+    }
+
     @Test
     void updateNullOwnerTest() {
         Exception exception = assertThrows(IncorrectParameterException.class,
@@ -155,7 +236,7 @@ class ItemServiceTest {
     @Test
     void searchEmptyResultTest() {
         saveItemDto();
-        when(itemRepository.getAllText(anyString()))
+        when(itemRepository.search(anyString(), any(Pageable.class)))
                 .thenReturn(of());
         List<ItemDto> search = itemService.getByText(
                 "Golden hand",
@@ -219,17 +300,10 @@ class ItemServiceTest {
                 userDto.getName(),
                 now()
         );
-        var comment = new Comment(
-                1L,
-                commentDto.getText(),
-                item,
-                toUser(userDto),
-                now()
-        );
-        when(commentRepository.findAll())
-                .thenReturn(of(comment));
+        when(commentRepository.findAllCommentDtos())
+                .thenReturn(of(commentDto));
         List<CommentDto> allComments = itemService.getAllComments();
-        assertEquals(allComments.get(0).getId(), comment.getId());
+        assertEquals(allComments.get(0).getId(), commentDto.getId());
         assertEquals(allComments.size(), 1);
     }
 
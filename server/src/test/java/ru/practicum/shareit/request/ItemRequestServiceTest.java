@@ -20,8 +20,11 @@ import static java.util.List.of;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.request.ItemRequestMapper.mapToItemRequest;
+import static ru.practicum.shareit.request.ItemRequestMapper.mapToItemRequestDto;
+import static ru.practicum.shareit.user.UserMapper.toUser;
 
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceTest {
@@ -54,7 +57,9 @@ class ItemRequestServiceTest {
     }
 
     ItemRequestDto saveItemRequestDto() {
-        when(userService.get(any()))
+        when(userService.getReference(any()))
+                .thenReturn(toUser(userDto));
+        lenient().when(userService.get(any()))
                 .thenReturn(userDto);
         when(itemRequestRepository.save(any()))
                 .thenReturn(itemRequest);
@@ -88,8 +93,8 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestsTest() {
         saveItemRequestDto();
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
+        when(itemRequestRepository.findItemRequestDtosByRequesterId(any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest)));
         List<ItemRequestDto> allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.get(0).getItems().size(), 0);
@@ -109,8 +114,8 @@ class ItemRequestServiceTest {
                                         3L)
                         )
                 );
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
+        when(itemRequestRepository.findItemRequestDtosByRequesterId(any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest)));
         List<ItemRequestDto> allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.size(), 1);
@@ -140,7 +145,7 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestsEmptyTest() {
         saveItemRequestDto();
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
+        when(itemRequestRepository.findItemRequestDtosByRequesterId(any()))
                 .thenReturn(of());
         List<ItemRequestDto> allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.size(), 0);
@@ -159,8 +164,8 @@ class ItemRequestServiceTest {
                                         3L)
                         )
                 );
-        when(itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
+        when(itemRequestRepository.findItemRequestDtosByRequesterIdNot(any(), any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest)));
         List<ItemRequestDto> allItemRequests = itemRequestService.getAllItemRequests(null, null, userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.get(0).getItems().size(), 1);
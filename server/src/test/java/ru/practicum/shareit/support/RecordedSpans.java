@@ -0,0 +1,67 @@
+package ru.practicum.shareit.support;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.stream.Collectors.toList;
+
+//in-memory exporter, spans are reported when they end
+@TestComponent
+public class RecordedSpans implements SpanReporter {
+    private final List<FinishedSpan> spans = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void report(FinishedSpan span) {
+        spans.add(span);
+    }
+
+    public void clear() {
+        spans.clear();
+    }
+
+    public FinishedSpan named(String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Нет спана " + name));
+    }
+
+    public List<FinishedSpan> ofTrace(String traceId) {
+        return spans.stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .collect(toList());
+    }
+
+    public FinishedSpan named(String traceId, String name) {
+        return ofTrace(traceId).stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Нет спана " + name + " среди " + names(traceId)));
+    }
+
+    public boolean isDescendant(FinishedSpan span, FinishedSpan ancestor) {
+        String parentId = span.getParentId();
+        while (parentId != null) {
+            if (parentId.equals(ancestor.getSpanId())) return true;
+            String current = parentId;
+            parentId = ofTrace(span.getTraceId()).stream()
+                    .filter(candidate -> candidate.getSpanId().equals(current))
+                    .map(FinishedSpan::getParentId)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return false;
+    }
+
+    private List<String> names(String traceId) {
+        return ofTrace(traceId).stream()
+                .map(FinishedSpan::getName)
+                .collect(toList());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.support;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import ru.practicum.shareit.support.SqlStatements.Kind;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+//statement counts per kind, upper bounds for assertWithin and exact for assertExactly;
+//a kind that is not mentioned is not allowed at all
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SqlBudget {
+    private final Map<Kind, Integer> limits;
+
+    public static SqlBudget atMost() {
+        return new SqlBudget(new EnumMap<>(Kind.class));
+    }
+
+    public static SqlBudget exactly() {
+        return atMost();
+    }
+
+    public SqlBudget selects(int limit) {
+        return with(Kind.SELECT, limit);
+    }
+
+    public SqlBudget inserts(int limit) {
+        return with(Kind.INSERT, limit);
+    }
+
+    public SqlBudget updates(int limit) {
+        return with(Kind.UPDATE, limit);
+    }
+
+    public SqlBudget deletes(int limit) {
+        return with(Kind.DELETE, limit);
+    }
+
+    int get(Kind kind) {
+        return limits.getOrDefault(kind, 0);
+    }
+
+    private SqlBudget with(Kind kind, int limit) {
+        Map<Kind, Integer> copy = new EnumMap<>(Kind.class);
+        copy.putAll(limits);
+        copy.put(kind, limit);
+        return new SqlBudget(copy);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.stream.Collectors.joining;
+
+//every statement Hibernate prepares, registered as the session factory statement inspector by SqlStatementsConfig
+public class SqlStatements implements StatementInspector {
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    public long count(Kind kind) {
+        return statements.stream()
+                .filter(sql -> Kind.of(sql) == kind)
+                .count();
+    }
+
+    public void assertWithin(SqlBudget budget) {
+        for (Kind kind : Kind.values()) {
+            if (count(kind) > budget.get(kind))
+                throw new AssertionError("SQL budget exceeded: " + kind + " " + count(kind) + " > " + budget.get(kind)
+                        + statements.stream().map(sql -> "\n  " + sql).collect(joining()));
+        }
+    }
+
+    //a fetch plan is pinned down both ways: an extra lazy load and a query that never ran both fail
+    public void assertExactly(SqlBudget budget) {
+        for (Kind kind : Kind.values()) {
+            if (count(kind) != budget.get(kind))
+                throw new AssertionError("SQL statements: " + kind + " " + count(kind) + " != " + budget.get(kind)
+                        + statements.stream().map(sql -> "\n  " + sql).collect(joining()));
+        }
+    }
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static Kind of(String sql) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select") || statement.startsWith("with")) return SELECT;
+            if (statement.startsWith("insert")) return INSERT;
+            if (statement.startsWith("update")) return UPDATE;
+            if (statement.startsWith("delete")) return DELETE;
+            return OTHER;
+        }
+    }
+}
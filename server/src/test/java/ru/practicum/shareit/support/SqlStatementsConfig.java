@@ -0,0 +1,20 @@
+package ru.practicum.shareit.support;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@TestConfiguration
+public class SqlStatementsConfig {
+
+    @Bean
+    public SqlStatements sqlStatements() {
+        return new SqlStatements();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementsInspector(SqlStatements sqlStatements) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatements);
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -14,12 +16,14 @@ import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -86,6 +90,29 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getUserNotModifiedTest() throws Exception {
+        when(userService.get(any()))
+                .thenReturn(userDto);
+        MvcResult result = mvc.perform(get("/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        mvc.perform(get("/users/{userId}", 1)
+                        .header("If-None-Match", etag)
+                )
+                .andExpect(header().string("ETag", etag))
+                .andExpect(status().isNotModified());
+
+        userDto.setVersion(userDto.getVersion() + 1);
+        mvc.perform(get("/users/{userId}", 1)
+                        .header("If-None-Match", etag)
+                )
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(status().isOk());
+    }
+
     @Test
     void deleteUserByIdTest() throws Exception {
         mvc.perform(delete("/users/{userId}", 1)
@@ -134,6 +161,20 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void updateConcurrentlyModifiedUserTest() throws Exception {
+        when(userService.update(any(UserDto.class), anyLong()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, userDto.getId()));
+        mvc.perform(patch("/users/{userId}", userDto.getId())
+                        .content(mapper.writeValueAsString(userDto))
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(jsonPath("$.error", is("Объект был изменён другим запросом, повторите попытку.")))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getUserNotFoundExceptionTest() throws Exception {
         when(userService.get(any()))
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +10,7 @@ import ru.practicum.shareit.exception.IncorrectParameterException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.Duration;
 import java.util.List;
 
 import static java.util.Optional.ofNullable;
@@ -26,7 +28,10 @@ class UserServiceTest {
 
     @BeforeEach
     void initialize() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository,
+                new UserCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                event -> {
+                });
         userDto = UserDto.builder()
                 .id(1L)
                 .name("Denis")
@@ -138,6 +143,29 @@ class UserServiceTest {
                 .deleteById(user.getId());
     }
 
+    @Test
+    void getUserCachedTest() {
+        when(userRepository.findById(user.getId()))
+                .thenReturn(ofNullable(user));
+        userService.get(user.getId());
+        userService.get(user.getId());
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
+    @Test
+    void getUserEvictedOnUpdateAndDeleteTest() {
+        when(userRepository.findById(user.getId()))
+                .thenReturn(ofNullable(user));
+        when(userRepository.save(any()))
+                .thenReturn(user);
+        userService.get(user.getId());
+        userService.update(new UserDto(null, "Mike", null), user.getId());
+        assertEquals("Mike", userService.get(user.getId()).getName());
+        userService.delete(user.getId());
+        userService.get(user.getId());
+        verify(userRepository, times(4)).findById(user.getId());
+    }
+
     @Test
     void getUserNullTest() {
         Exception exception = assertThrows(IncorrectParameterException.class,
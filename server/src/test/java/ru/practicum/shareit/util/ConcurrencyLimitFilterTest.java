@@ -0,0 +1,65 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(1, Duration.ofMillis(100), new ObjectMapper());
+
+    @Test
+    void passesRequestAndReleasesPermitTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), response, chain);
+        assertEquals(200, response.getStatus());
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    void rejectsRequestWhenLimitReachedTest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("GET", "/users"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                return null;
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/users"), response, new MockFilterChain());
+            assertEquals(503, response.getStatus());
+            assertEquals("{\"error\":\"Сервер перегружен, повторите запрос позже\"}",
+                    response.getContentAsString());
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            assertEquals(1, filter.availablePermits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneComputationTest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            entered.countDown();
+            await(release);
+            return computations.incrementAndGet();
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", computations::incrementAndGet));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    void followerGetsLeaderExceptionTest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            entered.countDown();
+            await(release);
+            throw new ObjectNotFoundException("not found");
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", () -> 1));
+        awaitCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderException = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerException = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ObjectNotFoundException.class, leaderException.getCause());
+        assertInstanceOf(ObjectNotFoundException.class, followerException.getCause());
+    }
+
+    @Test
+    void completedCallIsNotReusedTest() {
+        assertEquals(1, singleFlight.execute("key", () -> 1));
+        assertEquals(2, singleFlight.execute("key", () -> 2));
+        assertEquals(2, count("executed"));
+        assertEquals(0, count("coalesced"));
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(expected, count("coalesced"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("single-flight.calls")
+                .tag("name", "test")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}